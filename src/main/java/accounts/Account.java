@@ -2,23 +2,28 @@ package accounts;
 
 import java.math.BigDecimal;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents a bank account with balance tracking.
  * This class is used to model individual bank accounts in the system.
+ * The balance is an immutable BigDecimal swapped by compare-and-set, so
+ * debits and credits from several threads are never lost.
  */
 public class Account {
     private String accountId;
     private String accountName;
     private String accountType;
-    private BigDecimal balance;
+    private final AtomicReference<BigDecimal> balance;
     private String bankName;
+    private final CopyOnWriteArrayList<BalanceListener> balanceListeners = new CopyOnWriteArrayList<>();
     
     public Account(String accountId, String accountName, String accountType, BigDecimal balance, String bankName) {
         this.accountId = accountId;
         this.accountName = accountName;
         this.accountType = accountType;
-        this.balance = balance;
+        this.balance = new AtomicReference<>(balance);
         this.bankName = bankName;
     }
     
@@ -32,21 +37,53 @@ public class Account {
     public String getAccountType() { return accountType; }
     public void setAccountType(String accountType) { this.accountType = accountType; }
     
-    public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    public BigDecimal getBalance() { return balance.get(); }
+    public void setBalance(BigDecimal balance) {
+        this.balance.set(balance);
+        notifyBalanceChanged();
+    }
     
     public String getBankName() { return bankName; }
     public void setBankName(String bankName) { this.bankName = bankName; }
     
     public void debit(BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            this.balance = this.balance.subtract(amount);
+            adjustBalance(amount.negate());
+            notifyBalanceChanged();
         }
     }
     
     public void credit(BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            this.balance = this.balance.add(amount);
+            adjustBalance(amount);
+            notifyBalanceChanged();
+        }
+    }
+    
+    /**
+     * Atomically adds a (possibly negative) delta without notifying listeners.
+     */
+    BigDecimal adjustBalance(BigDecimal delta) {
+        return balance.accumulateAndGet(delta, BigDecimal::add);
+    }
+    
+    /**
+     * Registers a listener for balance changes (ignored if already registered).
+     */
+    public void addBalanceListener(BalanceListener listener) {
+        balanceListeners.addIfAbsent(listener);
+    }
+    
+    /**
+     * Unregisters a balance listener.
+     */
+    public void removeBalanceListener(BalanceListener listener) {
+        balanceListeners.remove(listener);
+    }
+    
+    void notifyBalanceChanged() {
+        for (BalanceListener listener : balanceListeners) {
+            listener.balanceChanged(this);
         }
     }
     
@@ -66,6 +103,6 @@ public class Account {
     @Override
     public String toString() {
         return String.format("Account{id='%s', name='%s', type='%s', balance=%s, bank='%s'}", 
-                           accountId, accountName, accountType, balance, bankName);
+                           accountId, accountName, accountType, balance.get(), bankName);
     }
 }
@@ -2,18 +2,38 @@ package accounts;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages bank accounts using Map data structure.
  * Handles account creation, retrieval, and persistence.
+ * Safe for concurrent use: accounts live in a ConcurrentHashMap and balances are
+ * updated by compare-and-set, so no posting is ever lost. Every change is saved,
+ * but a posting that finds a save already running leaves it to that thread, so
+ * concurrent postings never queue behind file I/O.
  */
 public class AccountManager {
     private Map<String, Account> accounts;
+    private final AtomicBoolean dirty = new AtomicBoolean(); // Set by every change not yet written
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private final Path accountsFile;
     private static final String ACCOUNTS_FILE = "src/main/resources/accounts.txt";
     
     public AccountManager() {
-        this.accounts = new HashMap<>();
+        this(Paths.get(ACCOUNTS_FILE));
+    }
+    
+    /**
+     * Creates a manager that loads and saves accounts in the given file.
+     */
+    public AccountManager(Path accountsFile) {
+        this.accountsFile = accountsFile;
+        this.accounts = new ConcurrentHashMap<>();
         loadAccounts();
     }
     
@@ -43,12 +63,58 @@ public class AccountManager {
      * Updates an existing account.
      */
     public void updateAccount(Account account) {
-        if (accounts.containsKey(account.getAccountId())) {
-            accounts.put(account.getAccountId(), account);
+        if (accounts.replace(account.getAccountId(), account) != null) {
             saveAccounts();
         }
     }
     
+    /**
+     * Debits an account by ID. Returns false if the account does not exist or the amount is not positive.
+     */
+    public boolean debit(String accountId, BigDecimal amount) {
+        return post(accountId, amount.negate(), amount);
+    }
+    
+    /**
+     * Credits an account by ID. Returns false if the account does not exist or the amount is not positive.
+     */
+    public boolean credit(String accountId, BigDecimal amount) {
+        return post(accountId, amount, amount);
+    }
+    
+    private boolean post(String accountId, BigDecimal delta, BigDecimal amount) {
+        Account account = accounts.get(accountId);
+        if (account == null || amount.signum() <= 0) {
+            return false;
+        }
+        
+        account.adjustBalance(delta);
+        account.notifyBalanceChanged();
+        saveAccounts();
+        return true;
+    }
+    
+    /**
+     * Moves an amount from one account to another as two independent compare-and-set
+     * steps. Neither side can be lost, but there is no isolation: a concurrent reader
+     * may see the debit applied before the credit.
+     * Returns false if either account does not exist, they are the same, or the amount is not positive.
+     */
+    public boolean transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        Account from = accounts.get(fromAccountId);
+        Account to = accounts.get(toAccountId);
+        if (from == null || to == null || from == to || amount.signum() <= 0) {
+            return false;
+        }
+        
+        from.adjustBalance(amount.negate());
+        to.adjustBalance(amount);
+        from.notifyBalanceChanged();
+        to.notifyBalanceChanged();
+        saveAccounts();
+        return true;
+    }
+    
     /**
      * Removes an account by ID.
      */
@@ -65,7 +131,7 @@ public class AccountManager {
      * Loads accounts from file.
      */
     private void loadAccounts() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(ACCOUNTS_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(accountsFile.toFile()))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (!line.trim().isEmpty()) {
@@ -81,10 +147,24 @@ public class AccountManager {
     }
     
     /**
-     * Saves accounts to file.
+     * Saves accounts to file. If another thread is already saving, it writes this
+     * change too: the saver keeps going until no change is left unwritten.
      */
     private void saveAccounts() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(ACCOUNTS_FILE))) {
+        dirty.set(true);
+        while (dirty.get() && saveLock.tryLock()) {
+            try {
+                if (dirty.getAndSet(false)) {
+                    writeAccounts();
+                }
+            } finally {
+                saveLock.unlock();
+            }
+        }
+    }
+    
+    private void writeAccounts() {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(accountsFile.toFile()))) {
             for (Account account : accounts.values()) {
                 writer.println(formatAccount(account));
             }
@@ -0,0 +1,12 @@
+package accounts;
+
+/**
+ * Listener notified whenever an account's balance changes.
+ */
+public interface BalanceListener {
+    
+    /**
+     * Called after the balance of the given account has changed.
+     */
+    void balanceChanged(Account account);
+}
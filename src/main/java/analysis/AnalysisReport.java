@@ -0,0 +1,57 @@
+package analysis;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard report combining all financial analysis metrics.
+ * Produced by FinancialAnalysis.fullReport in a single scan of the expenditures.
+ */
+public class AnalysisReport {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int year;
+    private BigDecimal burnRate;
+    private Map<String, BigDecimal> monthlySpending;
+    private Map<String, CategoryAnalysis> categoryAnalysis;
+    private Map<String, VendorAnalysis> vendorAnalysis;
+    private TrendAnalysis trendAnalysis;
+    private List<CategorySummary> topCategories;
+    private EfficiencyMetrics efficiencyMetrics;
+    
+    public AnalysisReport(LocalDate startDate, LocalDate endDate, int year, BigDecimal burnRate,
+                         Map<String, BigDecimal> monthlySpending, Map<String, CategoryAnalysis> categoryAnalysis,
+                         Map<String, VendorAnalysis> vendorAnalysis, TrendAnalysis trendAnalysis,
+                         List<CategorySummary> topCategories, EfficiencyMetrics efficiencyMetrics) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.year = year;
+        this.burnRate = burnRate;
+        this.monthlySpending = monthlySpending;
+        this.categoryAnalysis = categoryAnalysis;
+        this.vendorAnalysis = vendorAnalysis;
+        this.trendAnalysis = trendAnalysis;
+        this.topCategories = topCategories;
+        this.efficiencyMetrics = efficiencyMetrics;
+    }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public int getYear() { return year; }
+    public BigDecimal getBurnRate() { return burnRate; }
+    public Map<String, BigDecimal> getMonthlySpending() { return monthlySpending; }
+    public Map<String, CategoryAnalysis> getCategoryAnalysis() { return categoryAnalysis; }
+    public Map<String, VendorAnalysis> getVendorAnalysis() { return vendorAnalysis; }
+    public TrendAnalysis getTrendAnalysis() { return trendAnalysis; }
+    public List<CategorySummary> getTopCategories() { return topCategories; }
+    public EfficiencyMetrics getEfficiencyMetrics() { return efficiencyMetrics; }
+    
+    @Override
+    public String toString() {
+        return String.format("AnalysisReport{period=%s..%s, year=%d, burnRate=%s, categories=%d, vendors=%d, trend=%s, metrics=%s}",
+                           startDate, endDate, year, burnRate, categoryAnalysis.size(), vendorAnalysis.size(),
+                           trendAnalysis.getTrendDirection(), efficiencyMetrics);
+    }
+}
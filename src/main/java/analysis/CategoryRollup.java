@@ -0,0 +1,206 @@
+package analysis;
+
+import categories.Category;
+import expenditures.Expenditure;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Spend rolled up the category hierarchy.
+ * The category tree is flattened once by an iterative depth-first walk that gives
+ * every category an Euler tour interval [tin, tout]: its subtree is exactly the
+ * categories visited in that range. Direct spend is laid out in visit order and
+ * prefix-summed, so any category's subtree total is one subtraction and
+ * "is A an ancestor of B" is an interval check, both O(1) with no re-aggregation.
+ * Building is O(C + E) and the walk uses an explicit stack, so deep hierarchies
+ * cannot overflow the call stack.
+ * Categories whose parent is unknown are treated as roots, and parent cycles
+ * are broken at the first category of the cycle that is reached.
+ */
+public class CategoryRollup {
+    private final Map<String, Integer> positions; // categoryId -> tin (visit order)
+    private final String[] categoryIds;           // Visit order -> categoryId
+    private final int[] subtreeEnds;              // Visit order -> tout, last position in the subtree
+    private final int[] depths;                   // Visit order -> distance from its root
+    private final BigDecimal[] directTotals;      // Visit order -> spend posted to the category itself
+    private final BigDecimal[] prefixTotals;      // prefixTotals[i] = sum of directTotals[0..i)
+    private final long[] prefixCounts;            // Same, for transaction counts
+    private BigDecimal unassignedTotal;           // Spend on categories not in the tree
+    
+    public CategoryRollup(Collection<Category> categories, Iterable<Expenditure> expenditures) {
+        int size = categories.size();
+        this.positions = new HashMap<>(size * 2);
+        this.categoryIds = new String[size];
+        this.subtreeEnds = new int[size];
+        this.depths = new int[size];
+        this.directTotals = new BigDecimal[size];
+        this.prefixTotals = new BigDecimal[size + 1];
+        this.prefixCounts = new long[size + 1];
+        this.unassignedTotal = BigDecimal.ZERO;
+        
+        buildTour(categories);
+        aggregate(expenditures);
+    }
+    
+    /**
+     * Assigns Euler tour intervals with an iterative DFS from every root.
+     */
+    private void buildTour(Collection<Category> categories) {
+        Map<String, Category> byId = new HashMap<>(categories.size() * 2);
+        for (Category category : categories) {
+            byId.put(category.getCategoryId(), category);
+        }
+        
+        Map<String, List<String>> children = new HashMap<>();
+        List<String> roots = new ArrayList<>();
+        for (Category category : byId.values()) {
+            String parentId = category.getParentCategoryId();
+            if (parentId == null || parentId.isEmpty() || !byId.containsKey(parentId)) {
+                roots.add(category.getCategoryId());
+            } else {
+                children.computeIfAbsent(parentId, k -> new ArrayList<>()).add(category.getCategoryId());
+            }
+        }
+        
+        int next = 0;
+        for (String root : roots) {
+            next = visit(root, children, next);
+        }
+        // Anything not reached hangs off a parent cycle; start a walk from it to break the cycle
+        for (String categoryId : byId.keySet()) {
+            if (!positions.containsKey(categoryId)) {
+                next = visit(categoryId, children, next);
+            }
+        }
+    }
+    
+    /**
+     * Walks one subtree, assigning visit positions from next. Returns the next free position.
+     */
+    private int visit(String rootId, Map<String, List<String>> children, int next) {
+        Deque<int[]> stack = new ArrayDeque<>(); // {position, index of the next child to visit}
+        positions.put(rootId, next);
+        categoryIds[next] = rootId;
+        depths[next] = 0;
+        stack.push(new int[] {next++, 0});
+        
+        while (!stack.isEmpty()) {
+            int[] frame = stack.peek();
+            List<String> kids = children.getOrDefault(categoryIds[frame[0]], Collections.emptyList());
+            if (frame[1] < kids.size()) {
+                String childId = kids.get(frame[1]++);
+                if (positions.containsKey(childId)) {
+                    continue; // Back edge of a parent cycle
+                }
+                positions.put(childId, next);
+                categoryIds[next] = childId;
+                depths[next] = depths[frame[0]] + 1;
+                stack.push(new int[] {next++, 0});
+            } else {
+                subtreeEnds[frame[0]] = next - 1;
+                stack.pop();
+            }
+        }
+        return next;
+    }
+    
+    /**
+     * Posts expenditures to their categories and builds the prefix sums.
+     */
+    private void aggregate(Iterable<Expenditure> expenditures) {
+        Arrays.fill(directTotals, BigDecimal.ZERO);
+        long[] directCounts = new long[directTotals.length];
+        for (Expenditure exp : expenditures) {
+            Integer position = positions.get(exp.getCategoryId());
+            if (position == null) {
+                unassignedTotal = unassignedTotal.add(exp.getAmount());
+            } else {
+                directTotals[position] = directTotals[position].add(exp.getAmount());
+                directCounts[position]++;
+            }
+        }
+        
+        prefixTotals[0] = BigDecimal.ZERO;
+        for (int i = 0; i < directTotals.length; i++) {
+            prefixTotals[i + 1] = prefixTotals[i].add(directTotals[i]);
+            prefixCounts[i + 1] = prefixCounts[i] + directCounts[i];
+        }
+    }
+    
+    public boolean contains(String categoryId) {
+        return positions.containsKey(categoryId);
+    }
+    
+    /**
+     * Gets the spend posted directly to a category, excluding subcategories.
+     */
+    public BigDecimal getDirectTotal(String categoryId) {
+        Integer position = positions.get(categoryId);
+        return position != null ? directTotals[position] : BigDecimal.ZERO;
+    }
+    
+    /**
+     * Gets the spend under a category including all its subcategories, in O(1).
+     */
+    public BigDecimal getSubtreeTotal(String categoryId) {
+        Integer position = positions.get(categoryId);
+        return position != null ? prefixTotals[subtreeEnds[position] + 1].subtract(prefixTotals[position]) : BigDecimal.ZERO;
+    }
+    
+    /**
+     * Gets the number of expenditures under a category including all its subcategories, in O(1).
+     */
+    public long getSubtreeCount(String categoryId) {
+        Integer position = positions.get(categoryId);
+        return position != null ? prefixCounts[subtreeEnds[position] + 1] - prefixCounts[position] : 0;
+    }
+    
+    /**
+     * Checks whether ancestorId is categoryId or one of its ancestors, in O(1).
+     */
+    public boolean isAncestor(String ancestorId, String categoryId) {
+        Integer ancestor = positions.get(ancestorId);
+        Integer position = positions.get(categoryId);
+        return ancestor != null && position != null && ancestor <= position && position <= subtreeEnds[ancestor];
+    }
+    
+    /**
+     * Gets a category's distance from its root (0 for roots), or -1 if unknown.
+     */
+    public int getDepth(String categoryId) {
+        Integer position = positions.get(categoryId);
+        return position != null ? depths[position] : -1;
+    }
+    
+    /**
+     * Gets the spend on expenditures whose category is not in the tree.
+     */
+    public BigDecimal getUnassignedTotal() {
+        return unassignedTotal;
+    }
+    
+    /**
+     * Ranks categories by subtree total and keeps the top N.
+     */
+    public List<CategorySummary> getTopSubtrees(int topN) {
+        List<CategorySummary> summaries = new ArrayList<>(categoryIds.length);
+        for (String categoryId : categoryIds) {
+            summaries.add(new CategorySummary(categoryId, getSubtreeTotal(categoryId)));
+        }
+        summaries.sort((a, b) -> b.getTotalAmount().compareTo(a.getTotalAmount()));
+        return summaries.subList(0, Math.min(topN, summaries.size()));
+    }
+    
+    /**
+     * Returns every category in depth-first order, so subcategories follow their parent.
+     */
+    public List<String> getCategoryIdsInTreeOrder() {
+        return Collections.unmodifiableList(Arrays.asList(categoryIds));
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("CategoryRollup{categories=%d, total=%s, unassigned=%s}",
+                           categoryIds.length, prefixTotals[categoryIds.length].add(unassignedTotal), unassignedTotal);
+    }
+}
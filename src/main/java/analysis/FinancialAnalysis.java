@@ -1,21 +1,31 @@
 package analysis;
 
+import categories.Category;
+import expenditures.DateRangeIndex;
 import expenditures.Expenditure;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Financial analysis utilities for forecasting and burn rate analysis.
- * Uses arrays and maps for efficient data processing.
+ * Analyses take any Iterable, so they run directly on an ExpenditureSnapshot
+ * without copying it into an array.
  */
 public class FinancialAnalysis {
     
+    // Below this many expenditures the fork/merge overhead outweighs parallel grouping
+    private static final int PARALLEL_THRESHOLD = 10_000;
+    
     /**
      * Calculates the burn rate (spending rate) over a period.
      */
-    public static BigDecimal calculateBurnRate(Expenditure[] expenditures, LocalDate startDate, LocalDate endDate) {
+    public static BigDecimal calculateBurnRate(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate) {
         BigDecimal totalSpent = BigDecimal.ZERO;
         
         for (Expenditure exp : expenditures) {
@@ -25,6 +35,20 @@ public class FinancialAnalysis {
             }
         }
         
+        return toDailyRate(totalSpent, startDate, endDate);
+    }
+    
+    /**
+     * Calculates the burn rate over a period using a date-range index (O(log D)).
+     */
+    public static BigDecimal calculateBurnRate(DateRangeIndex index, LocalDate startDate, LocalDate endDate) {
+        return toDailyRate(index.sumRange(startDate, endDate), startDate, endDate);
+    }
+    
+    /**
+     * Converts a period total into a per-day rate.
+     */
+    private static BigDecimal toDailyRate(BigDecimal totalSpent, LocalDate startDate, LocalDate endDate) {
         long daysBetween = ChronoUnit.DAYS.between(startDate, endDate);
         if (daysBetween == 0) {
             return totalSpent;
@@ -36,7 +60,7 @@ public class FinancialAnalysis {
     /**
      * Calculates monthly spending analysis.
      */
-    public static Map<String, BigDecimal> calculateMonthlySpending(Expenditure[] expenditures, int year) {
+    public static Map<String, BigDecimal> calculateMonthlySpending(Iterable<Expenditure> expenditures, int year) {
         Map<String, BigDecimal> monthlySpending = new HashMap<>();
         
         // Initialize all months with zero
@@ -59,7 +83,7 @@ public class FinancialAnalysis {
     /**
      * Analyzes spending by category.
      */
-    public static Map<String, CategoryAnalysis> analyzeByCategoryIds(Expenditure[] expenditures) {
+    public static Map<String, CategoryAnalysis> analyzeByCategoryIds(Iterable<Expenditure> expenditures) {
         Map<String, CategoryAnalysis> categoryAnalysis = new HashMap<>();
         
         for (Expenditure exp : expenditures) {
@@ -77,10 +101,17 @@ public class FinancialAnalysis {
         return categoryAnalysis;
     }
     
+    /**
+     * Rolls spending up the category hierarchy, so each category's total includes its subcategories.
+     */
+    public static CategoryRollup analyzeCategoryRollup(Iterable<Expenditure> expenditures, Collection<Category> categories) {
+        return new CategoryRollup(categories, expenditures);
+    }
+    
     /**
      * Analyzes spending by vendor.
      */
-    public static Map<String, VendorAnalysis> analyzeByVendor(Expenditure[] expenditures) {
+    public static Map<String, VendorAnalysis> analyzeByVendor(Iterable<Expenditure> expenditures) {
         Map<String, VendorAnalysis> vendorAnalysis = new HashMap<>();
         
         for (Expenditure exp : expenditures) {
@@ -98,18 +129,82 @@ public class FinancialAnalysis {
         return vendorAnalysis;
     }
     
+    /**
+     * Analyzes spending by category as a parallel reduction.
+     * Each worker fills its own partial map and the partials are merged,
+     * so no expenditure lists are held and averages are computed once on read.
+     */
+    public static Map<String, CategoryAnalysis> analyzeByCategoryIdsParallel(Collection<Expenditure> expenditures) {
+        return analyzeByCategoryIdsParallel(expenditures, null);
+    }
+    
+    /**
+     * Analyzes spending by category as a parallel reduction, resolving each
+     * category's expenditures lazily through the given index lookup.
+     */
+    public static Map<String, CategoryAnalysis> analyzeByCategoryIdsParallel(Collection<Expenditure> expenditures, 
+                                                                             Function<String, List<Expenditure>> expenditureResolver) {
+        return groupInParallel(expenditures, Expenditure::getCategoryId, 
+                               id -> new CategoryAnalysis(id, expenditureResolver), 
+                               CategoryAnalysis::addExpenditure, CategoryAnalysis::merge);
+    }
+    
+    /**
+     * Analyzes spending by vendor as a parallel reduction.
+     */
+    public static Map<String, VendorAnalysis> analyzeByVendorParallel(Collection<Expenditure> expenditures) {
+        return analyzeByVendorParallel(expenditures, null);
+    }
+    
+    /**
+     * Analyzes spending by vendor as a parallel reduction, resolving each
+     * vendor's expenditures lazily through the given index lookup.
+     */
+    public static Map<String, VendorAnalysis> analyzeByVendorParallel(Collection<Expenditure> expenditures, 
+                                                                      Function<String, List<Expenditure>> expenditureResolver) {
+        return groupInParallel(expenditures, Expenditure::getVendor, 
+                               vendor -> new VendorAnalysis(vendor, expenditureResolver), 
+                               VendorAnalysis::addExpenditure, VendorAnalysis::merge);
+    }
+    
+    /**
+     * Groups expenditures into mergeable accumulators, in parallel for large inputs.
+     */
+    private static <A> Map<String, A> groupInParallel(Collection<Expenditure> expenditures, 
+                                                      Function<Expenditure, String> keyExtractor,
+                                                      Function<String, A> accumulatorFactory,
+                                                      BiConsumer<A, Expenditure> accumulate,
+                                                      BinaryOperator<A> merge) {
+        Stream<Expenditure> stream = expenditures.size() >= PARALLEL_THRESHOLD ? 
+            expenditures.parallelStream() : expenditures.stream();
+        
+        return stream.collect(
+            HashMap::new,
+            (partial, exp) -> accumulate.accept(partial.computeIfAbsent(keyExtractor.apply(exp), accumulatorFactory), exp),
+            (left, right) -> right.forEach((key, accumulator) -> left.merge(key, accumulator, merge))
+        );
+    }
+    
     /**
      * Projects future spending based on historical data.
      */
-    public static BigDecimal projectFutureSpending(Expenditure[] expenditures, LocalDate startDate, LocalDate endDate, int futureDays) {
+    public static BigDecimal projectFutureSpending(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate, int futureDays) {
         BigDecimal dailyAverage = calculateBurnRate(expenditures, startDate, endDate);
         return dailyAverage.multiply(BigDecimal.valueOf(futureDays));
     }
     
+    /**
+     * Projects future spending using a date-range index for the historical total.
+     */
+    public static BigDecimal projectFutureSpending(DateRangeIndex index, LocalDate startDate, LocalDate endDate, int futureDays) {
+        BigDecimal dailyAverage = calculateBurnRate(index, startDate, endDate);
+        return dailyAverage.multiply(BigDecimal.valueOf(futureDays));
+    }
+    
     /**
      * Calculates budget variance (actual vs planned).
      */
-    public static BigDecimal calculateBudgetVariance(Expenditure[] expenditures, BigDecimal plannedBudget, LocalDate startDate, LocalDate endDate) {
+    public static BigDecimal calculateBudgetVariance(Iterable<Expenditure> expenditures, BigDecimal plannedBudget, LocalDate startDate, LocalDate endDate) {
         BigDecimal actualSpending = BigDecimal.ZERO;
         
         for (Expenditure exp : expenditures) {
@@ -123,41 +218,30 @@ public class FinancialAnalysis {
     }
     
     /**
-     * Identifies spending trends over time.
+     * Calculates budget variance using a date-range index for the actual total (O(log D)).
      */
-    public static TrendAnalysis analyzeTrends(Expenditure[] expenditures, LocalDate startDate, LocalDate endDate) {
-        // Sort expenditures by date
-        Expenditure[] sortedExpenditures = Arrays.copyOf(expenditures, expenditures.length);
-        Arrays.sort(sortedExpenditures, Comparator.comparing(Expenditure::getDate));
-        
-        List<BigDecimal> weeklySpending = new ArrayList<>();
-        LocalDate currentWeekStart = startDate;
-        
-        while (!currentWeekStart.isAfter(endDate)) {
-            LocalDate weekEnd = currentWeekStart.plusDays(6);
-            if (weekEnd.isAfter(endDate)) {
-                weekEnd = endDate;
-            }
-            
-            BigDecimal weeklyAmount = BigDecimal.ZERO;
-            for (Expenditure exp : sortedExpenditures) {
-                LocalDate expDate = exp.getDate();
-                if (!expDate.isBefore(currentWeekStart) && !expDate.isAfter(weekEnd)) {
-                    weeklyAmount = weeklyAmount.add(exp.getAmount());
-                }
-            }
-            
-            weeklySpending.add(weeklyAmount);
-            currentWeekStart = currentWeekStart.plusWeeks(1);
-        }
-        
-        return new TrendAnalysis(weeklySpending, calculateTrend(weeklySpending));
+    public static BigDecimal calculateBudgetVariance(DateRangeIndex index, BigDecimal plannedBudget, LocalDate startDate, LocalDate endDate) {
+        return index.sumRange(startDate, endDate).subtract(plannedBudget);
+    }
+    
+    /**
+     * Identifies weekly spending trends over time.
+     */
+    public static TrendAnalysis analyzeTrends(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate) {
+        return TrendEngine.analyze(expenditures, startDate, endDate, TrendEngine.BucketSize.WEEK);
+    }
+    
+    /**
+     * Identifies spending trends over time using the given bucket size.
+     */
+    public static TrendAnalysis analyzeTrends(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate, TrendEngine.BucketSize bucketSize) {
+        return TrendEngine.analyze(expenditures, startDate, endDate, bucketSize);
     }
     
     /**
      * Calculates the top spending categories.
      */
-    public static List<CategorySummary> getTopSpendingCategories(Expenditure[] expenditures, int topN) {
+    public static List<CategorySummary> getTopSpendingCategories(Iterable<Expenditure> expenditures, int topN) {
         Map<String, BigDecimal> categoryTotals = new HashMap<>();
         
         for (Expenditure exp : expenditures) {
@@ -166,6 +250,13 @@ public class FinancialAnalysis {
             categoryTotals.put(categoryId, currentTotal.add(exp.getAmount()));
         }
         
+        return toTopCategories(categoryTotals, topN);
+    }
+    
+    /**
+     * Ranks category totals by amount and keeps the top N.
+     */
+    private static List<CategorySummary> toTopCategories(Map<String, BigDecimal> categoryTotals, int topN) {
         List<CategorySummary> summaries = new ArrayList<>();
         for (Map.Entry<String, BigDecimal> entry : categoryTotals.entrySet()) {
             summaries.add(new CategorySummary(entry.getKey(), entry.getValue()));
@@ -180,7 +271,7 @@ public class FinancialAnalysis {
     /**
      * Calculates spending efficiency metrics.
      */
-    public static EfficiencyMetrics calculateEfficiencyMetrics(Expenditure[] expenditures, LocalDate startDate, LocalDate endDate) {
+    public static EfficiencyMetrics calculateEfficiencyMetrics(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate) {
         BigDecimal totalSpent = BigDecimal.ZERO;
         int transactionCount = 0;
         Set<String> uniqueVendors = new HashSet<>();
@@ -202,28 +293,96 @@ public class FinancialAnalysis {
     }
     
     /**
-     * Calculates simple trend direction from a list of values.
+     * Builds the full dashboard report in one pass over the expenditures.
+     * Burn rate, trends and efficiency metrics cover [startDate, endDate];
+     * monthly spending covers the given year; category, vendor and top
+     * category figures cover all expenditures, as in the individual analyses.
+     */
+    public static AnalysisReport fullReport(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate, int year, int topN) {
+        BigDecimal[] monthTotals = new BigDecimal[12];
+        Arrays.fill(monthTotals, BigDecimal.ZERO);
+        BigDecimal[] weekTotals = new BigDecimal[TrendEngine.bucketCount(startDate, endDate, TrendEngine.BucketSize.WEEK)];
+        Arrays.fill(weekTotals, BigDecimal.ZERO);
+        
+        Map<String, CategoryAnalysis> categoryAnalysis = new HashMap<>();
+        Map<String, VendorAnalysis> vendorAnalysis = new HashMap<>();
+        BigDecimal periodTotal = BigDecimal.ZERO;
+        int periodCount = 0;
+        Set<String> periodVendors = new HashSet<>();
+        
+        for (Expenditure exp : expenditures) {
+            LocalDate expDate = exp.getDate();
+            BigDecimal amount = exp.getAmount();
+            
+            categoryAnalysis.computeIfAbsent(exp.getCategoryId(), id -> new CategoryAnalysis(id, false)).addExpenditure(exp);
+            vendorAnalysis.computeIfAbsent(exp.getVendor(), vendor -> new VendorAnalysis(vendor, false)).addExpenditure(exp);
+            
+            if (expDate.getYear() == year) {
+                int month = expDate.getMonthValue() - 1;
+                monthTotals[month] = monthTotals[month].add(amount);
+            }
+            
+            if (!expDate.isBefore(startDate) && !expDate.isAfter(endDate)) {
+                periodTotal = periodTotal.add(amount);
+                periodCount++;
+                periodVendors.add(exp.getVendor());
+                
+                int week = TrendEngine.bucketIndex(startDate, expDate, TrendEngine.BucketSize.WEEK);
+                weekTotals[week] = weekTotals[week].add(amount);
+            }
+        }
+        
+        Map<String, BigDecimal> monthlySpending = new HashMap<>();
+        for (int month = 1; month <= 12; month++) {
+            monthlySpending.put(String.format("%d-%02d", year, month), monthTotals[month - 1]);
+        }
+        
+        Map<String, BigDecimal> categoryTotals = new HashMap<>();
+        for (Map.Entry<String, CategoryAnalysis> entry : categoryAnalysis.entrySet()) {
+            categoryTotals.put(entry.getKey(), entry.getValue().getTotalAmount());
+        }
+        
+        BigDecimal averageTransactionAmount = periodCount > 0 ? 
+            periodTotal.divide(BigDecimal.valueOf(periodCount), 2, java.math.RoundingMode.HALF_UP) : 
+            BigDecimal.ZERO;
+        
+        return new AnalysisReport(
+            startDate,
+            endDate,
+            year,
+            toDailyRate(periodTotal, startDate, endDate),
+            monthlySpending,
+            categoryAnalysis,
+            vendorAnalysis,
+            TrendEngine.toTrendAnalysis(weekTotals, TrendEngine.BucketSize.WEEK),
+            toTopCategories(categoryTotals, topN),
+            new EfficiencyMetrics(periodTotal, periodCount, periodVendors.size(), averageTransactionAmount)
+        );
+    }
+    
+    /**
+     * Calculates simple trend direction from bucketed values.
      */
-    private static TrendDirection calculateTrend(List<BigDecimal> values) {
-        if (values.size() < 2) {
+    static TrendDirection calculateTrend(BigDecimal[] values) {
+        if (values.length < 2) {
             return TrendDirection.STABLE;
         }
         
         BigDecimal firstHalfSum = BigDecimal.ZERO;
         BigDecimal secondHalfSum = BigDecimal.ZERO;
         
-        int midPoint = values.size() / 2;
+        int midPoint = values.length / 2;
         
         for (int i = 0; i < midPoint; i++) {
-            firstHalfSum = firstHalfSum.add(values.get(i));
+            firstHalfSum = firstHalfSum.add(values[i]);
         }
         
-        for (int i = midPoint; i < values.size(); i++) {
-            secondHalfSum = secondHalfSum.add(values.get(i));
+        for (int i = midPoint; i < values.length; i++) {
+            secondHalfSum = secondHalfSum.add(values[i]);
         }
         
         BigDecimal avgFirst = firstHalfSum.divide(BigDecimal.valueOf(midPoint), 2, java.math.RoundingMode.HALF_UP);
-        BigDecimal avgSecond = secondHalfSum.divide(BigDecimal.valueOf(values.size() - midPoint), 2, java.math.RoundingMode.HALF_UP);
+        BigDecimal avgSecond = secondHalfSum.divide(BigDecimal.valueOf(values.length - midPoint), 2, java.math.RoundingMode.HALF_UP);
         
         BigDecimal difference = avgSecond.subtract(avgFirst);
         BigDecimal threshold = avgFirst.multiply(BigDecimal.valueOf(0.1)); // 10% threshold
@@ -9,18 +9,30 @@ import java.util.List;
 public class TrendAnalysis {
     private List<BigDecimal> weeklySpending;
     private FinancialAnalysis.TrendDirection trendDirection;
+    private TrendEngine.BucketSize bucketSize;
     
     public TrendAnalysis(List<BigDecimal> weeklySpending, FinancialAnalysis.TrendDirection trendDirection) {
-        this.weeklySpending = weeklySpending;
+        this(weeklySpending, trendDirection, TrendEngine.BucketSize.WEEK);
+    }
+    
+    public TrendAnalysis(List<BigDecimal> bucketSpending, FinancialAnalysis.TrendDirection trendDirection, 
+                        TrendEngine.BucketSize bucketSize) {
+        this.weeklySpending = bucketSpending;
         this.trendDirection = trendDirection;
+        this.bucketSize = bucketSize;
     }
     
+    /**
+     * Spending per bucket. Buckets are weeks unless another bucket size was requested.
+     */
     public List<BigDecimal> getWeeklySpending() { return weeklySpending; }
+    public List<BigDecimal> getBucketSpending() { return weeklySpending; }
     public FinancialAnalysis.TrendDirection getTrendDirection() { return trendDirection; }
+    public TrendEngine.BucketSize getBucketSize() { return bucketSize; }
     
     @Override
     public String toString() {
-        return String.format("TrendAnalysis{weeklySpending=%s, trendDirection=%s}", 
-                           weeklySpending, trendDirection);
+        return String.format("TrendAnalysis{bucketSize=%s, spending=%s, trendDirection=%s}", 
+                           bucketSize, weeklySpending, trendDirection);
     }
 }
@@ -0,0 +1,111 @@
+package analysis;
+
+import expenditures.Expenditure;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Bucketed spending trends over a date range.
+ * Each expenditure is assigned to its bucket arithmetically, so a series
+ * is built in a single O(N) pass regardless of how many buckets it spans.
+ */
+public class TrendEngine {
+    
+    /**
+     * Bucket sizes, anchored at the start date of the analysis. Month bucket k covers
+     * [start.plusMonths(k), start.plusMonths(k + 1)), so a start on Jan 31 puts Feb 29 in bucket 1.
+     */
+    public enum BucketSize {
+        DAY, WEEK, MONTH, QUARTER
+    }
+    
+    /**
+     * Builds a spending series and trend direction for all expenditures.
+     */
+    public static TrendAnalysis analyze(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate, BucketSize bucketSize) {
+        BigDecimal[] buckets = newBuckets(bucketCount(startDate, endDate, bucketSize));
+        
+        for (Expenditure exp : expenditures) {
+            LocalDate expDate = exp.getDate();
+            if (!expDate.isBefore(startDate) && !expDate.isAfter(endDate)) {
+                int bucket = bucketIndex(startDate, expDate, bucketSize);
+                buckets[bucket] = buckets[bucket].add(exp.getAmount());
+            }
+        }
+        
+        return toTrendAnalysis(buckets, bucketSize);
+    }
+    
+    /**
+     * Builds one spending series per category in a single pass.
+     */
+    public static Map<String, TrendAnalysis> analyzeByCategory(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate, BucketSize bucketSize) {
+        int bucketCount = bucketCount(startDate, endDate, bucketSize);
+        Map<String, BigDecimal[]> seriesByCategory = new HashMap<>();
+        
+        for (Expenditure exp : expenditures) {
+            LocalDate expDate = exp.getDate();
+            if (!expDate.isBefore(startDate) && !expDate.isAfter(endDate)) {
+                BigDecimal[] buckets = seriesByCategory.computeIfAbsent(exp.getCategoryId(), k -> newBuckets(bucketCount));
+                int bucket = bucketIndex(startDate, expDate, bucketSize);
+                buckets[bucket] = buckets[bucket].add(exp.getAmount());
+            }
+        }
+        
+        Map<String, TrendAnalysis> result = new HashMap<>();
+        for (Map.Entry<String, BigDecimal[]> entry : seriesByCategory.entrySet()) {
+            result.put(entry.getKey(), toTrendAnalysis(entry.getValue(), bucketSize));
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the bucket a date falls into, counted from the start date.
+     */
+    static int bucketIndex(LocalDate startDate, LocalDate date, BucketSize bucketSize) {
+        switch (bucketSize) {
+            case DAY:
+                return (int) ChronoUnit.DAYS.between(startDate, date);
+            case WEEK:
+                return (int) (ChronoUnit.DAYS.between(startDate, date) / 7);
+            case MONTH:
+                return monthIndex(startDate, date);
+            case QUARTER:
+                return monthIndex(startDate, date) / 3;
+            default:
+                throw new IllegalArgumentException("Unknown bucket size: " + bucketSize);
+        }
+    }
+    
+    /**
+     * Counts whole months from the start date the way plusMonths does.
+     * MONTHS.between compares day-of-month, so from Jan 31 it sees Feb 29 as zero months
+     * even though Jan 31 plus one month is Feb 29; step past that clamped month end.
+     */
+    private static int monthIndex(LocalDate startDate, LocalDate date) {
+        int months = (int) ChronoUnit.MONTHS.between(startDate, date);
+        return startDate.plusMonths(months + 1).isAfter(date) ? months : months + 1;
+    }
+    
+    /**
+     * Gets the number of buckets needed to cover the range (zero if the range is empty).
+     */
+    static int bucketCount(LocalDate startDate, LocalDate endDate, BucketSize bucketSize) {
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+        return bucketIndex(startDate, endDate, bucketSize) + 1;
+    }
+    
+    private static BigDecimal[] newBuckets(int count) {
+        BigDecimal[] buckets = new BigDecimal[count];
+        Arrays.fill(buckets, BigDecimal.ZERO);
+        return buckets;
+    }
+    
+    static TrendAnalysis toTrendAnalysis(BigDecimal[] buckets, BucketSize bucketSize) {
+        return new TrendAnalysis(Arrays.asList(buckets), FinancialAnalysis.calculateTrend(buckets), bucketSize);
+    }
+}
@@ -5,61 +5,117 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Analysis data for a specific vendor.
+ * In summary-only mode just the running sum, count and dates are kept; the
+ * vendor's expenditures are then resolved on demand through an index lookup.
  */
 public class VendorAnalysis {
     private String vendor;
-    private List<Expenditure> expenditures;
+    private List<Expenditure> expenditures; // Only kept when retainExpenditures is set
+    private Function<String, List<Expenditure>> expenditureResolver; // Index lookup used in summary-only mode
     private BigDecimal totalAmount;
     private int transactionCount;
-    private BigDecimal averageAmount;
+    private BigDecimal averageAmount; // Computed on first read, cleared when totals change
     private LocalDate firstTransaction;
     private LocalDate lastTransaction;
     
     public VendorAnalysis(String vendor) {
+        this(vendor, true);
+    }
+    
+    /**
+     * Creates a summary-only analysis whose expenditures are looked up lazily.
+     */
+    public VendorAnalysis(String vendor, Function<String, List<Expenditure>> expenditureResolver) {
+        this(vendor, false);
+        this.expenditureResolver = expenditureResolver;
+    }
+    
+    public VendorAnalysis(String vendor, boolean retainExpenditures) {
         this.vendor = vendor;
-        this.expenditures = new ArrayList<>();
+        this.expenditures = retainExpenditures ? new ArrayList<>() : null;
         this.totalAmount = BigDecimal.ZERO;
         this.transactionCount = 0;
-        this.averageAmount = BigDecimal.ZERO;
     }
     
     public void addExpenditure(Expenditure expenditure) {
-        expenditures.add(expenditure);
+        if (expenditures != null) {
+            expenditures.add(expenditure);
+        }
         totalAmount = totalAmount.add(expenditure.getAmount());
         transactionCount++;
-        
-        if (firstTransaction == null || expenditure.getDate().isBefore(firstTransaction)) {
-            firstTransaction = expenditure.getDate();
+        includeDate(expenditure.getDate());
+        averageAmount = null;
+    }
+    
+    /**
+     * Combines another partial analysis for the same vendor into this one.
+     * Expenditure lists are only kept if both sides retained them.
+     */
+    public VendorAnalysis merge(VendorAnalysis other) {
+        if (expenditures != null && other.expenditures != null) {
+            expenditures.addAll(other.expenditures);
+        } else {
+            expenditures = null;
         }
-        
-        if (lastTransaction == null || expenditure.getDate().isAfter(lastTransaction)) {
-            lastTransaction = expenditure.getDate();
+        if (expenditureResolver == null) {
+            expenditureResolver = other.expenditureResolver;
         }
-        
-        recalculateAverage();
+        totalAmount = totalAmount.add(other.totalAmount);
+        transactionCount += other.transactionCount;
+        if (other.firstTransaction != null) {
+            includeDate(other.firstTransaction);
+            includeDate(other.lastTransaction);
+        }
+        averageAmount = null;
+        return this;
     }
     
-    private void recalculateAverage() {
-        if (transactionCount > 0) {
-            averageAmount = totalAmount.divide(BigDecimal.valueOf(transactionCount), 2, java.math.RoundingMode.HALF_UP);
+    private void includeDate(LocalDate date) {
+        if (firstTransaction == null || date.isBefore(firstTransaction)) {
+            firstTransaction = date;
+        }
+        
+        if (lastTransaction == null || date.isAfter(lastTransaction)) {
+            lastTransaction = date;
         }
     }
     
     // Getters
     public String getVendor() { return vendor; }
-    public List<Expenditure> getExpenditures() { return new ArrayList<>(expenditures); }
+    
+    /**
+     * Gets the vendor's expenditures: the retained list if kept, otherwise resolved through the index.
+     */
+    public List<Expenditure> getExpenditures() {
+        if (expenditures != null) {
+            return new ArrayList<>(expenditures);
+        }
+        return expenditureResolver != null ? expenditureResolver.apply(vendor) : new ArrayList<>();
+    }
+    
+    public boolean isRetainingExpenditures() { return expenditures != null; }
     public BigDecimal getTotalAmount() { return totalAmount; }
     public int getTransactionCount() { return transactionCount; }
-    public BigDecimal getAverageAmount() { return averageAmount; }
+    
+    public BigDecimal getAverageAmount() {
+        if (averageAmount == null) {
+            averageAmount = transactionCount > 0 
+                ? totalAmount.divide(BigDecimal.valueOf(transactionCount), 2, java.math.RoundingMode.HALF_UP) 
+                : BigDecimal.ZERO;
+        }
+        return averageAmount;
+    }
+    
     public LocalDate getFirstTransaction() { return firstTransaction; }
     public LocalDate getLastTransaction() { return lastTransaction; }
     
     @Override
     public String toString() {
         return String.format("VendorAnalysis{vendor='%s', totalAmount=%s, transactionCount=%d, averageAmount=%s}", 
-                           vendor, totalAmount, transactionCount, averageAmount);
+                           vendor, totalAmount, transactionCount, getAverageAmount());
     }
 }
@@ -1,29 +1,62 @@
 package categories;
 
 import java.io.*;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
  * Manages categories using HashSet for fast lookup and uniqueness.
  * Handles category creation, retrieval, and persistence.
+ * A parent -> children index answers subcategory and root lookups without a scan,
+ * and spend posted with addSpend is rolled up into every ancestor as it arrives,
+ * so the total under a category including all its subcategories is an O(1) read.
+ * Spend arrives on whichever thread publishes the expenditure change, so spend
+ * postings, hierarchy edits and the rollup reads all synchronize on the manager.
  */
 public class CategoryManager {
     private Set<Category> categories;
     private Map<String, Category> categoryIndex; // For fast lookup by ID
+    private Map<String, Set<Category>> children; // parentId -> direct subcategories
+    private Set<Category> roots; // Categories without a parent
+    private Map<String, String> indexedParents; // categoryId -> parentId the category is indexed under
+    private Map<String, BigDecimal> ownSpend; // categoryId -> spend posted directly to it
+    private Map<String, BigDecimal> subtreeSpend; // categoryId -> spend under it, subcategories included
+    private final Path categoriesFile;
     private static final String CATEGORIES_FILE = "src/main/resources/categories.txt";
     
     public CategoryManager() {
+        this(Paths.get(CATEGORIES_FILE));
+    }
+    
+    /**
+     * Creates a manager that loads and saves categories in the given file.
+     */
+    public CategoryManager(Path categoriesFile) {
+        this.categoriesFile = categoriesFile;
         this.categories = new HashSet<>();
         this.categoryIndex = new HashMap<>();
+        this.children = new HashMap<>();
+        this.roots = new HashSet<>();
+        this.indexedParents = new HashMap<>();
+        this.ownSpend = new HashMap<>();
+        this.subtreeSpend = new HashMap<>();
         loadCategories();
     }
     
     /**
      * Adds a new category to the system.
      */
-    public boolean addCategory(Category category) {
+    public synchronized boolean addCategory(Category category) {
+        if (!categories.contains(category) && isInSubtree(parentOf(category), category.getCategoryId())) {
+            System.err.println("Error: Category " + category.getCategoryId() +
+                             " cannot be added under its own subcategory " + category.getParentCategoryId());
+            return false;
+        }
         if (categories.add(category)) {
             categoryIndex.put(category.getCategoryId(), category);
+            link(category);
             saveCategories();
             return true;
         }
@@ -60,11 +93,21 @@ public class CategoryManager {
     /**
      * Updates an existing category.
      */
-    public void updateCategory(Category category) {
+    public synchronized void updateCategory(Category category) {
         if (categories.contains(category)) {
+            // The caller may have edited the indexed instance itself, so compare against the recorded parent
+            String previousParent = indexedParents.get(category.getCategoryId());
+            if (isInSubtree(parentOf(category), category.getCategoryId())) {
+                System.err.println("Error: Category " + category.getCategoryId() +
+                                 " cannot be moved under its own subcategory " + category.getParentCategoryId());
+                category.setParentCategoryId(previousParent);
+            }
+            
+            unlink(category.getCategoryId());
             categories.remove(category);
             categories.add(category);
             categoryIndex.put(category.getCategoryId(), category);
+            link(category);
             saveCategories();
         }
     }
@@ -72,9 +115,10 @@ public class CategoryManager {
     /**
      * Removes a category by ID.
      */
-    public boolean removeCategory(String categoryId) {
+    public synchronized boolean removeCategory(String categoryId) {
         Category category = categoryIndex.get(categoryId);
         if (category != null) {
+            unlink(categoryId);
             categories.remove(category);
             categoryIndex.remove(categoryId);
             saveCategories();
@@ -86,7 +130,7 @@ public class CategoryManager {
     /**
      * Deactivates a category instead of removing it.
      */
-    public boolean deactivateCategory(String categoryId) {
+    public synchronized boolean deactivateCategory(String categoryId) {
         Category category = categoryIndex.get(categoryId);
         if (category != null) {
             category.setActive(false);
@@ -99,27 +143,127 @@ public class CategoryManager {
     /**
      * Gets subcategories of a parent category.
      */
-    public Set<Category> getSubcategories(String parentCategoryId) {
-        Set<Category> subcategories = new HashSet<>();
-        for (Category category : categories) {
-            if (parentCategoryId.equals(category.getParentCategoryId())) {
-                subcategories.add(category);
+    public synchronized Set<Category> getSubcategories(String parentCategoryId) {
+        Set<Category> subcategories = children.get(parentCategoryId);
+        return subcategories != null ? new HashSet<>(subcategories) : new HashSet<>();
+    }
+    
+    /**
+     * Gets root categories (categories without parent).
+     */
+    public synchronized Set<Category> getRootCategories() {
+        return new HashSet<>(roots);
+    }
+    
+    /**
+     * Posts spend to a category and rolls it up into every ancestor in O(depth).
+     * Negative amounts reverse earlier spend. Spend on an unknown category is kept
+     * and counted once the category is added.
+     */
+    public synchronized void addSpend(String categoryId, BigDecimal amount) {
+        if (categoryId == null || amount == null || amount.signum() == 0) {
+            return;
+        }
+        ownSpend.merge(categoryId, amount, BigDecimal::add);
+        if (categoryIndex.containsKey(categoryId)) {
+            addToAncestors(categoryId, amount, true);
+        }
+    }
+    
+    /**
+     * Gets the spend posted directly to a category, excluding subcategories.
+     */
+    public synchronized BigDecimal getSpend(String categoryId) {
+        return ownSpend.getOrDefault(categoryId, BigDecimal.ZERO);
+    }
+    
+    /**
+     * Gets the spend under a category including all its subcategories, in O(1).
+     */
+    public synchronized BigDecimal getSubtreeSpend(String categoryId) {
+        return subtreeSpend.getOrDefault(categoryId, BigDecimal.ZERO);
+    }
+    
+    /**
+     * Indexes a category under its parent and adds its subtree spend to its ancestors.
+     * Subcategories added before it are already indexed under its ID and are picked up here.
+     */
+    private void link(Category category) {
+        String categoryId = category.getCategoryId();
+        String parentId = parentOf(category);
+        indexedParents.put(categoryId, parentId);
+        if (parentId == null) {
+            roots.add(category);
+        } else {
+            children.computeIfAbsent(parentId, k -> new HashSet<>()).add(category);
+        }
+        
+        BigDecimal total = ownSpend.getOrDefault(categoryId, BigDecimal.ZERO);
+        for (Category child : children.getOrDefault(categoryId, Collections.emptySet())) {
+            total = total.add(getSubtreeSpend(child.getCategoryId()));
+        }
+        subtreeSpend.put(categoryId, total);
+        addToAncestors(categoryId, total, false);
+    }
+    
+    /**
+     * Reverses link: takes the category's subtree spend back out of its ancestors and
+     * drops it from its parent's children. Its own subcategories stay indexed under its ID.
+     */
+    private void unlink(String categoryId) {
+        if (!indexedParents.containsKey(categoryId)) {
+            return;
+        }
+        addToAncestors(categoryId, getSubtreeSpend(categoryId).negate(), false);
+        subtreeSpend.remove(categoryId);
+        
+        String parentId = indexedParents.remove(categoryId);
+        Category category = categoryIndex.get(categoryId);
+        if (parentId == null) {
+            roots.remove(category);
+        } else {
+            Set<Category> siblings = children.get(parentId);
+            if (siblings != null) {
+                siblings.remove(category);
+                if (siblings.isEmpty()) {
+                    children.remove(parentId);
+                }
             }
         }
-        return subcategories;
     }
     
     /**
-     * Gets root categories (categories without parent).
+     * Adds an amount to the subtree totals of a category's ancestors, and of the category itself if asked.
+     * Stops at the first ancestor that does not exist; the hop limit guards against parent cycles in the data file.
      */
-    public Set<Category> getRootCategories() {
-        Set<Category> rootCategories = new HashSet<>();
-        for (Category category : categories) {
-            if (category.getParentCategoryId() == null || category.getParentCategoryId().isEmpty()) {
-                rootCategories.add(category);
+    private void addToAncestors(String categoryId, BigDecimal amount, boolean includeSelf) {
+        if (amount.signum() == 0) {
+            return;
+        }
+        String id = includeSelf ? categoryId : indexedParents.get(categoryId);
+        for (int hops = 0; id != null && categoryIndex.containsKey(id) && hops <= categoryIndex.size(); hops++) {
+            subtreeSpend.merge(id, amount, BigDecimal::add);
+            id = indexedParents.get(id);
+        }
+    }
+    
+    /**
+     * Checks whether a category lies in the subtree rooted at ancestorId, walking up its parents.
+     */
+    private boolean isInSubtree(String categoryId, String ancestorId) {
+        String id = categoryId;
+        for (int hops = 0; id != null && hops <= categoryIndex.size(); hops++) {
+            if (id.equals(ancestorId)) {
+                return true;
             }
+            id = indexedParents.get(id);
         }
-        return rootCategories;
+        return false;
+    }
+    
+    private static String parentOf(Category category) {
+        String parentId = category.getParentCategoryId();
+        return parentId == null || parentId.isEmpty() ? null : parentId;
     }
     
     /**
@@ -147,14 +291,14 @@ public class CategoryManager {
      * Loads categories from file.
      */
     private void loadCategories() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(CATEGORIES_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(categoriesFile.toFile()))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (!line.trim().isEmpty()) {
                     Category category = parseCategory(line);
-                    if (category != null) {
-                        categories.add(category);
+                    if (category != null && categories.add(category)) {
                         categoryIndex.put(category.getCategoryId(), category);
+                        link(category);
                     }
                 }
             }
@@ -167,7 +311,7 @@ public class CategoryManager {
      * Saves categories to file.
      */
     private void saveCategories() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CATEGORIES_FILE))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(categoriesFile.toFile()))) {
             for (Category category : categories) {
                 writer.println(formatCategory(category));
             }
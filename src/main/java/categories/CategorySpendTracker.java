@@ -0,0 +1,52 @@
+package categories;
+
+import expenditures.Expenditure;
+import expenditures.ExpenditureEvent;
+import expenditures.ExpenditureListener;
+
+/**
+ * Feeds expenditure changes into the category spend rollups.
+ * Additions post their amount to the expenditure's category, removals reverse it,
+ * and updates reverse the previous posting before applying the new one, so moving
+ * an expenditure between categories moves its spend between subtrees.
+ */
+public class CategorySpendTracker implements ExpenditureListener {
+    private CategoryManager categoryManager;
+    
+    public CategorySpendTracker(CategoryManager categoryManager) {
+        this.categoryManager = categoryManager;
+    }
+    
+    /**
+     * Posts existing expenditures, e.g. those loaded before the tracker was subscribed.
+     */
+    public void seed(Iterable<Expenditure> expenditures) {
+        for (Expenditure expenditure : expenditures) {
+            post(expenditure, false);
+        }
+    }
+    
+    @Override
+    public void onExpenditureEvent(ExpenditureEvent event) {
+        switch (event.getType()) {
+            case ADDED:
+                post(event.getCurrent(), false);
+                break;
+            case UPDATED:
+                post(event.getPrevious(), true);
+                post(event.getCurrent(), false);
+                break;
+            case REMOVED:
+                post(event.getPrevious(), true);
+                break;
+        }
+    }
+    
+    private void post(Expenditure expenditure, boolean reverse) {
+        if (expenditure.getAmount() == null) {
+            return;
+        }
+        categoryManager.addSpend(expenditure.getCategoryId(),
+                                 reverse ? expenditure.getAmount().negate() : expenditure.getAmount());
+    }
+}
@@ -0,0 +1,146 @@
+package expenditures;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Fenwick tree (binary indexed tree) of daily spending keyed by epoch day.
+ * Supports point updates and inclusive date-range totals in O(log D),
+ * where D is the number of days covered by the index.
+ * Methods are synchronized so the index can be read while it is being posted to.
+ */
+public class DateRangeIndex {
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private long baseDay;          // Epoch day stored at position 0
+    private BigDecimal[] daily;    // Raw per-day totals, kept for rebuilding on growth
+    private BigDecimal[] tree;     // 1-based Fenwick tree over daily
+    
+    /**
+     * Adds an amount to the given day.
+     */
+    public synchronized void add(LocalDate date, BigDecimal amount) {
+        long day = date.toEpochDay();
+        ensureCovers(day);
+        
+        int position = (int) (day - baseDay);
+        daily[position] = daily[position].add(amount);
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] = tree[i].add(amount);
+        }
+    }
+    
+    /**
+     * Subtracts an amount from the given day.
+     */
+    public synchronized void subtract(LocalDate date, BigDecimal amount) {
+        add(date, amount.negate());
+    }
+    
+    /**
+     * Returns the total for the inclusive range [startDate, endDate].
+     */
+    public synchronized BigDecimal sumRange(LocalDate startDate, LocalDate endDate) {
+        if (daily == null || endDate.isBefore(startDate)) {
+            return BigDecimal.ZERO;
+        }
+        return prefixSum(endDate.toEpochDay()).subtract(prefixSum(startDate.toEpochDay() - 1));
+    }
+    
+    /**
+     * Returns the total for a single day.
+     */
+    public synchronized BigDecimal getDailyTotal(LocalDate date) {
+        long day = date.toEpochDay();
+        if (daily == null || day < baseDay || day >= baseDay + daily.length) {
+            return BigDecimal.ZERO;
+        }
+        return daily[(int) (day - baseDay)];
+    }
+    
+    /**
+     * Returns the total across all indexed days.
+     */
+    public synchronized BigDecimal getTotal() {
+        if (daily == null) {
+            return BigDecimal.ZERO;
+        }
+        return prefixSum(baseDay + daily.length - 1);
+    }
+    
+    /**
+     * Checks if nothing has been indexed yet.
+     */
+    public synchronized boolean isEmpty() {
+        return daily == null;
+    }
+    
+    /**
+     * Sum of all days up to and including the given epoch day.
+     */
+    private BigDecimal prefixSum(long day) {
+        if (day < baseDay) {
+            return BigDecimal.ZERO;
+        }
+        
+        int position = (int) Math.min(day - baseDay, daily.length - 1);
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = position + 1; i > 0; i -= i & -i) {
+            sum = sum.add(tree[i]);
+        }
+        return sum;
+    }
+    
+    /**
+     * Grows the covered day range so it includes the given day.
+     * Capacity doubles towards the side being extended, so appends are amortized O(log D).
+     */
+    private void ensureCovers(long day) {
+        if (daily == null) {
+            baseDay = day - INITIAL_CAPACITY / 2;
+            daily = new BigDecimal[INITIAL_CAPACITY];
+            Arrays.fill(daily, BigDecimal.ZERO);
+            rebuildTree();
+            return;
+        }
+        
+        long endDay = baseDay + daily.length - 1;
+        if (day >= baseDay && day <= endDay) {
+            return;
+        }
+        
+        long span = Math.max(endDay, day) - Math.min(baseDay, day) + 1;
+        long capacity = daily.length;
+        while (capacity < span) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Date range too large to index: " + LocalDate.ofEpochDay(day));
+        }
+        
+        long newBaseDay = day < baseDay ? endDay - capacity + 1 : baseDay;
+        BigDecimal[] newDaily = new BigDecimal[(int) capacity];
+        Arrays.fill(newDaily, BigDecimal.ZERO);
+        System.arraycopy(daily, 0, newDaily, (int) (baseDay - newBaseDay), daily.length);
+        
+        baseDay = newBaseDay;
+        daily = newDaily;
+        rebuildTree();
+    }
+    
+    /**
+     * Rebuilds the Fenwick tree from the daily totals in O(D).
+     */
+    private void rebuildTree() {
+        tree = new BigDecimal[daily.length + 1];
+        Arrays.fill(tree, BigDecimal.ZERO);
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] = tree[i].add(daily[i - 1]);
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] = tree[parent].add(tree[i]);
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@ import java.util.Objects;
 /**
  * Represents an expenditure record in the system.
  * Links to account and category information.
+ * The instances ExpenditureManager stores and shares through snapshots and indexes
+ * are read-only: their setters throw. Edit a copy and pass it to updateExpenditure.
  */
 public class Expenditure {
     private String expenditureId;
@@ -17,6 +19,7 @@ public class Expenditure {
     private String categoryId;
     private String vendor;
     private String projectId;
+    private boolean readOnly; // Set on the manager's stored instances
     
     public Expenditure(String expenditureId, String description, BigDecimal amount, LocalDate date, 
                       String accountId, String categoryId, String vendor, String projectId) {
@@ -30,30 +33,56 @@ public class Expenditure {
         this.projectId = projectId;
     }
     
+    /**
+     * Creates an editable copy of another expenditure.
+     */
+    public Expenditure(Expenditure other) {
+        this(other.expenditureId, other.description, other.amount, other.date, 
+             other.accountId, other.categoryId, other.vendor, other.projectId);
+    }
+    
+    /**
+     * Creates a read-only copy, safe to share with every reader.
+     */
+    static Expenditure readOnlyCopy(Expenditure other) {
+        Expenditure copy = new Expenditure(other);
+        copy.readOnly = true;
+        return copy;
+    }
+    
+    public boolean isReadOnly() { return readOnly; }
+    
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Expenditure " + expenditureId +
+                                                    " is read-only; edit a copy and call updateExpenditure");
+        }
+    }
+    
     // Getters and setters
     public String getExpenditureId() { return expenditureId; }
-    public void setExpenditureId(String expenditureId) { this.expenditureId = expenditureId; }
+    public void setExpenditureId(String expenditureId) { checkWritable(); this.expenditureId = expenditureId; }
     
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { checkWritable(); this.description = description; }
     
     public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public void setAmount(BigDecimal amount) { checkWritable(); this.amount = amount; }
     
     public LocalDate getDate() { return date; }
-    public void setDate(LocalDate date) { this.date = date; }
+    public void setDate(LocalDate date) { checkWritable(); this.date = date; }
     
     public String getAccountId() { return accountId; }
-    public void setAccountId(String accountId) { this.accountId = accountId; }
+    public void setAccountId(String accountId) { checkWritable(); this.accountId = accountId; }
     
     public String getCategoryId() { return categoryId; }
-    public void setCategoryId(String categoryId) { this.categoryId = categoryId; }
+    public void setCategoryId(String categoryId) { checkWritable(); this.categoryId = categoryId; }
     
     public String getVendor() { return vendor; }
-    public void setVendor(String vendor) { this.vendor = vendor; }
+    public void setVendor(String vendor) { checkWritable(); this.vendor = vendor; }
     
     public String getProjectId() { return projectId; }
-    public void setProjectId(String projectId) { this.projectId = projectId; }
+    public void setProjectId(String projectId) { checkWritable(); this.projectId = projectId; }
     
     @Override
     public boolean equals(Object o) {
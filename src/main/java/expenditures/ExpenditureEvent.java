@@ -0,0 +1,31 @@
+package expenditures;
+
+/**
+ * Describes a change to an expenditure record.
+ * Previous is null for additions; current is null for removals.
+ */
+public class ExpenditureEvent {
+    private Type type;
+    private Expenditure previous;
+    private Expenditure current;
+    
+    public enum Type {
+        ADDED, UPDATED, REMOVED
+    }
+    
+    public ExpenditureEvent(Type type, Expenditure previous, Expenditure current) {
+        this.type = type;
+        this.previous = previous;
+        this.current = current;
+    }
+    
+    public Type getType() { return type; }
+    public Expenditure getPrevious() { return previous; }
+    public Expenditure getCurrent() { return current; }
+    
+    @Override
+    public String toString() {
+        return String.format("ExpenditureEvent{type=%s, previous=%s, current=%s}", 
+                           type, previous, current);
+    }
+}
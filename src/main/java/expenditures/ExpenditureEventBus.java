@@ -0,0 +1,35 @@
+package expenditures;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process event bus for expenditure changes.
+ * Listeners are called synchronously, in subscription order, on the publishing thread.
+ */
+public class ExpenditureEventBus {
+    private final List<ExpenditureListener> listeners = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Subscribes a listener to expenditure events.
+     */
+    public void subscribe(ExpenditureListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Unsubscribes a listener.
+     */
+    public void unsubscribe(ExpenditureListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Delivers an event to every subscribed listener.
+     */
+    public void publish(ExpenditureEvent event) {
+        for (ExpenditureListener listener : listeners) {
+            listener.onExpenditureEvent(event);
+        }
+    }
+}
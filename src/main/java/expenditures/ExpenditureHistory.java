@@ -0,0 +1,126 @@
+package expenditures;
+
+import java.util.*;
+
+/**
+ * Expenditures in most-recent-first order as a doubly linked list whose nodes
+ * are indexed by expenditureId. Touching (move-to-front) and removing an
+ * expenditure are O(1); a page of the history costs O(offset + limit).
+ */
+class ExpenditureHistory {
+    private final Map<String, Node> nodes;
+    private Node head; // Most recent
+    private Node tail; // Least recent
+    
+    ExpenditureHistory() {
+        this.nodes = new HashMap<>();
+    }
+    
+    /**
+     * Records an expenditure as the most recent, replacing any earlier version with the same ID.
+     */
+    void touch(Expenditure expenditure) {
+        Node node = nodes.get(expenditure.getExpenditureId());
+        if (node != null) {
+            unlink(node);
+            node.expenditure = expenditure;
+        } else {
+            node = new Node(expenditure);
+            nodes.put(expenditure.getExpenditureId(), node);
+        }
+        linkFirst(node);
+    }
+    
+    /**
+     * Appends an expenditure as the least recent (used while loading, oldest last).
+     */
+    void append(Expenditure expenditure) {
+        Node node = nodes.get(expenditure.getExpenditureId());
+        if (node != null) {
+            unlink(node);
+            node.expenditure = expenditure;
+        } else {
+            node = new Node(expenditure);
+            nodes.put(expenditure.getExpenditureId(), node);
+        }
+        linkLast(node);
+    }
+    
+    void remove(String expenditureId) {
+        Node node = nodes.remove(expenditureId);
+        if (node != null) {
+            unlink(node);
+        }
+    }
+    
+    int size() {
+        return nodes.size();
+    }
+    
+    /**
+     * Gets up to limit expenditures starting offset entries from the most recent.
+     */
+    List<Expenditure> page(int offset, int limit) {
+        List<Expenditure> result = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size() - offset)));
+        Node node = head;
+        for (int i = 0; i < offset && node != null; i++) {
+            node = node.next;
+        }
+        while (node != null && result.size() < limit) {
+            result.add(node.expenditure);
+            node = node.next;
+        }
+        return result;
+    }
+    
+    List<Expenditure> toList() {
+        return page(0, nodes.size());
+    }
+    
+    private void linkFirst(Node node) {
+        node.prev = null;
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        } else {
+            tail = node;
+        }
+        head = node;
+    }
+    
+    private void linkLast(Node node) {
+        node.next = null;
+        node.prev = tail;
+        if (tail != null) {
+            tail.next = node;
+        } else {
+            head = node;
+        }
+        tail = node;
+    }
+    
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            head = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            tail = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+    
+    private static class Node {
+        private Expenditure expenditure;
+        private Node prev;
+        private Node next;
+        
+        Node(Expenditure expenditure) {
+            this.expenditure = expenditure;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package expenditures;
+
+/**
+ * Listener notified of expenditure additions, updates and removals.
+ */
+public interface ExpenditureListener {
+    
+    /**
+     * Called after an expenditure change has been applied.
+     */
+    void onExpenditureEvent(ExpenditureEvent event);
+}
@@ -2,106 +2,244 @@ package expenditures;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Manages expenditure records using HashMap and LinkedList.
- * Handles expenditure creation, retrieval, and persistence.
+ * Manages expenditure records, their lookup indexes and their persistence.
+ * Changes are published as ExpenditureEvents so dependent balances stay current.
+ * Safe for concurrent use: writes hold a write lock, reads share a read lock,
+ * and snapshot() gives a consistent view that needs no lock at all.
+ * Stored expenditures are read-only copies, so the instances handed out by
+ * snapshots, lookups and the history can be shared without defensive copying.
+ * Records live in a persistent map, so each write publishes a new version in
+ * O(log n) and a snapshot is just a reference to the version current at the time.
  */
 public class ExpenditureManager {
-    private Map<String, Expenditure> expenditures;
-    private LinkedList<Expenditure> expenditureHistory;
+    private PersistentHashMap<String, Expenditure> expenditures; // Replaced, never mutated, under the write lock
+    private volatile ExpenditureSnapshot current; // Latest published version, read without locking
+    private ExpenditureHistory expenditureHistory; // Most recent first, O(1) move-to-front and removal
+    private SpendIndex spendIndex; // Date-range totals for burn rate and budget windows
+    private GroupIndex categoryIndex;
+    private GroupIndex accountIndex;
+    private GroupIndex vendorIndex;
+    private ExpenditureEventBus eventBus;
+    private long version; // Incremented by every change, guarded by the write lock
+    private long savedVersion; // Latest version written to file, guarded by saveLock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object saveLock = new Object();
+    private final Path expendituresFile;
     private static final String EXPENDITURES_FILE = "src/main/resources/expenditures.txt";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
     public ExpenditureManager() {
-        this.expenditures = new HashMap<>();
-        this.expenditureHistory = new LinkedList<>();
+        this(new ExpenditureEventBus());
+    }
+    
+    /**
+     * Creates a manager that publishes add/update/remove events on the given bus.
+     */
+    public ExpenditureManager(ExpenditureEventBus eventBus) {
+        this(Paths.get(EXPENDITURES_FILE), eventBus);
+    }
+    
+    /**
+     * Creates a manager that loads and saves expenditures in the given file.
+     */
+    public ExpenditureManager(Path expendituresFile, ExpenditureEventBus eventBus) {
+        this.expendituresFile = expendituresFile;
+        this.eventBus = eventBus;
+        this.expenditures = PersistentHashMap.empty();
+        this.expenditureHistory = new ExpenditureHistory();
+        this.spendIndex = new SpendIndex();
+        this.categoryIndex = new GroupIndex();
+        this.accountIndex = new GroupIndex();
+        this.vendorIndex = new GroupIndex();
         loadExpenditures();
+        takeSnapshot();
     }
     
     /**
      * Adds a new expenditure to the system.
      */
     public void addExpenditure(Expenditure expenditure) {
-        expenditures.put(expenditure.getExpenditureId(), expenditure);
-        expenditureHistory.addFirst(expenditure); // Most recent first
-        saveExpenditures();
+        Expenditure stored = Expenditure.readOnlyCopy(expenditure);
+        Expenditure previous;
+        ExpenditureSnapshot snapshot;
+        
+        lock.writeLock().lock();
+        try {
+            previous = expenditures.get(stored.getExpenditureId());
+            expenditures = expenditures.put(stored.getExpenditureId(), stored);
+            expenditureHistory.touch(stored); // Most recent first
+            index(stored);
+            snapshot = takeSnapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        saveExpenditures(snapshot);
+        
+        if (previous != null) {
+            eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.UPDATED, previous, stored));
+        } else {
+            eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.ADDED, null, stored));
+        }
     }
     
     /**
-     * Retrieves an expenditure by ID.
+     * Retrieves an editable copy of an expenditure by ID.
+     * Changes to the copy take effect through updateExpenditure, which can then
+     * report both the previous and the new values.
      */
     public Expenditure getExpenditure(String expenditureId) {
-        return expenditures.get(expenditureId);
+        Expenditure expenditure = current.getExpenditure(expenditureId);
+        return expenditure != null ? new Expenditure(expenditure) : null;
+    }
+    
+    /**
+     * Returns the bus on which expenditure changes are published.
+     */
+    public ExpenditureEventBus getEventBus() {
+        return eventBus;
     }
     
     /**
-     * Returns all expenditures.
+     * Returns all expenditures (a read-only view of the current snapshot; the expenditures are read-only too).
      */
     public Collection<Expenditure> getAllExpenditures() {
-        return expenditures.values();
+        return current.getAllExpenditures();
+    }
+    
+    /**
+     * Returns a consistent, immutable view of all expenditures at the current version.
+     * Analyses should run against a snapshot so they never see a half-applied
+     * change and never hold up writers while they run.
+     */
+    public ExpenditureSnapshot snapshot() {
+        return current;
     }
     
     /**
      * Returns expenditure history (most recent first).
      */
     public List<Expenditure> getExpenditureHistory() {
-        return new ArrayList<>(expenditureHistory);
+        lock.readLock().lock();
+        try {
+            return expenditureHistory.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns one page of the expenditure history (most recent first).
+     * Only the requested entries are visited and copied.
+     */
+    public List<Expenditure> getExpenditureHistory(int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return expenditureHistory.page(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the number of expenditures in the history.
+     */
+    public int getExpenditureHistorySize() {
+        lock.readLock().lock();
+        try {
+            return expenditureHistory.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the date-range spending index (global and per category/account/project).
+     */
+    public SpendIndex getSpendIndex() {
+        return spendIndex;
     }
     
     /**
      * Updates an existing expenditure.
      */
     public void updateExpenditure(Expenditure expenditure) {
-        if (expenditures.containsKey(expenditure.getExpenditureId())) {
-            expenditures.put(expenditure.getExpenditureId(), expenditure);
+        Expenditure stored = Expenditure.readOnlyCopy(expenditure);
+        Expenditure previous;
+        ExpenditureSnapshot snapshot;
+        
+        lock.writeLock().lock();
+        try {
+            previous = expenditures.get(stored.getExpenditureId());
+            if (previous == null) {
+                return;
+            }
+            expenditures = expenditures.put(stored.getExpenditureId(), stored);
             // Update in history list
-            expenditureHistory.remove(expenditure);
-            expenditureHistory.addFirst(expenditure);
-            saveExpenditures();
+            expenditureHistory.touch(stored);
+            index(stored);
+            snapshot = takeSnapshot();
+        } finally {
+            lock.writeLock().unlock();
         }
+        saveExpenditures(snapshot);
+        eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.UPDATED, previous, stored));
     }
     
     /**
      * Removes an expenditure by ID.
      */
     public boolean removeExpenditure(String expenditureId) {
-        Expenditure removed = expenditures.remove(expenditureId);
-        if (removed != null) {
-            expenditureHistory.remove(removed);
-            saveExpenditures();
-            return true;
+        Expenditure removed;
+        ExpenditureSnapshot snapshot;
+        
+        lock.writeLock().lock();
+        try {
+            removed = expenditures.get(expenditureId);
+            if (removed == null) {
+                return false;
+            }
+            expenditures = expenditures.remove(expenditureId);
+            expenditureHistory.remove(expenditureId);
+            unindex(expenditureId);
+            snapshot = takeSnapshot();
+        } finally {
+            lock.writeLock().unlock();
         }
-        return false;
+        saveExpenditures(snapshot);
+        eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.REMOVED, removed, null));
+        return true;
     }
     
     /**
      * Gets expenditures by account ID.
      */
     public List<Expenditure> getExpendituresByAccount(String accountId) {
-        List<Expenditure> result = new ArrayList<>();
-        for (Expenditure exp : expenditures.values()) {
-            if (accountId.equals(exp.getAccountId())) {
-                result.add(exp);
-            }
-        }
-        return result;
+        return current.getExpendituresByAccount(accountId);
     }
     
     /**
      * Gets expenditures by category ID.
      */
     public List<Expenditure> getExpendituresByCategory(String categoryId) {
-        List<Expenditure> result = new ArrayList<>();
-        for (Expenditure exp : expenditures.values()) {
-            if (categoryId.equals(exp.getCategoryId())) {
-                result.add(exp);
-            }
-        }
-        return result;
+        return current.getExpendituresByCategory(categoryId);
+    }
+    
+    /**
+     * Gets expenditures by vendor (exact match).
+     */
+    public List<Expenditure> getExpendituresByVendor(String vendor) {
+        return current.getExpendituresByVendor(vendor);
     }
     
     /**
@@ -109,7 +247,7 @@ public class ExpenditureManager {
      */
     public List<Expenditure> getExpendituresByDateRange(LocalDate startDate, LocalDate endDate) {
         List<Expenditure> result = new ArrayList<>();
-        for (Expenditure exp : expenditures.values()) {
+        for (Expenditure exp : snapshot()) {
             LocalDate expDate = exp.getDate();
             if (!expDate.isBefore(startDate) && !expDate.isAfter(endDate)) {
                 result.add(exp);
@@ -122,27 +260,54 @@ public class ExpenditureManager {
      * Calculates total expenditures for a given account.
      */
     public BigDecimal getTotalExpendituresByAccount(String accountId) {
-        BigDecimal total = BigDecimal.ZERO;
-        for (Expenditure exp : expenditures.values()) {
-            if (accountId.equals(exp.getAccountId())) {
-                total = total.add(exp.getAmount());
-            }
-        }
-        return total;
+        return spendIndex.getAccountIndex(accountId).getTotal();
+    }
+    
+    /**
+     * Publishes the current version as a snapshot in O(1); callers hold the write lock.
+     */
+    private ExpenditureSnapshot takeSnapshot() {
+        current = new ExpenditureSnapshot(expenditures, categoryIndex.groups(), accountIndex.groups(),
+                                          vendorIndex.groups(), version);
+        return current;
+    }
+    
+    /**
+     * Adds or refreshes an expenditure in the secondary indexes.
+     */
+    private void index(Expenditure expenditure) {
+        version++;
+        spendIndex.add(expenditure);
+        categoryIndex.put(expenditure.getCategoryId(), expenditure);
+        accountIndex.put(expenditure.getAccountId(), expenditure);
+        vendorIndex.put(expenditure.getVendor(), expenditure);
+    }
+    
+    /**
+     * Removes an expenditure from the secondary indexes.
+     */
+    private void unindex(String expenditureId) {
+        version++;
+        spendIndex.remove(expenditureId);
+        categoryIndex.remove(expenditureId);
+        accountIndex.remove(expenditureId);
+        vendorIndex.remove(expenditureId);
     }
     
     /**
      * Loads expenditures from file.
      */
     private void loadExpenditures() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(EXPENDITURES_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(expendituresFile.toFile()))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (!line.trim().isEmpty()) {
-                    Expenditure expenditure = parseExpenditure(line);
-                    if (expenditure != null) {
-                        expenditures.put(expenditure.getExpenditureId(), expenditure);
-                        expenditureHistory.addLast(expenditure);
+                    Expenditure parsed = parseExpenditure(line);
+                    if (parsed != null) {
+                        Expenditure expenditure = Expenditure.readOnlyCopy(parsed);
+                        expenditures = expenditures.put(expenditure.getExpenditureId(), expenditure);
+                        expenditureHistory.append(expenditure);
+                        index(expenditure);
                     }
                 }
             }
@@ -152,15 +317,22 @@ public class ExpenditureManager {
     }
     
     /**
-     * Saves expenditures to file.
+     * Saves a snapshot to file outside the write lock.
+     * Writes are serialized, and a snapshot older than the last one saved is skipped.
      */
-    private void saveExpenditures() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(EXPENDITURES_FILE))) {
-            for (Expenditure expenditure : expenditures.values()) {
-                writer.println(formatExpenditure(expenditure));
+    private void saveExpenditures(ExpenditureSnapshot snapshot) {
+        synchronized (saveLock) {
+            if (snapshot.getVersion() < savedVersion) {
+                return;
+            }
+            try (PrintWriter writer = new PrintWriter(new FileWriter(expendituresFile.toFile()))) {
+                for (Expenditure expenditure : snapshot) {
+                    writer.println(formatExpenditure(expenditure));
+                }
+                savedVersion = snapshot.getVersion();
+            } catch (IOException e) {
+                System.err.println("Error saving expenditures: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error saving expenditures: " + e.getMessage());
         }
     }
     
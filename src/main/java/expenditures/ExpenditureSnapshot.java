@@ -0,0 +1,89 @@
+package expenditures;
+
+import java.util.*;
+
+/**
+ * Immutable, consistent view of the expenditures at one version of an ExpenditureManager.
+ * Later adds, updates and removals never show up in a snapshot, so long-running
+ * analyses can read it without holding any lock. The expenditures themselves are
+ * the manager's read-only stored instances, so they cannot be changed through it either.
+ * Backed by persistent maps shared with the manager, so taking one costs O(1);
+ * that includes the category, account and vendor groupings, which match the snapshot exactly.
+ */
+public class ExpenditureSnapshot implements Iterable<Expenditure> {
+    private final PersistentHashMap<String, Expenditure> expenditures;
+    private final GroupIndex.Groups byCategory;
+    private final GroupIndex.Groups byAccount;
+    private final GroupIndex.Groups byVendor;
+    private final long version;
+    
+    ExpenditureSnapshot(PersistentHashMap<String, Expenditure> expenditures, GroupIndex.Groups byCategory,
+                        GroupIndex.Groups byAccount, GroupIndex.Groups byVendor, long version) {
+        this.expenditures = expenditures;
+        this.byCategory = byCategory;
+        this.byAccount = byAccount;
+        this.byVendor = byVendor;
+        this.version = version;
+    }
+    
+    /**
+     * Gets the manager version this snapshot was taken at (incremented by every change).
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    public Expenditure getExpenditure(String expenditureId) {
+        return expenditures.get(expenditureId);
+    }
+    
+    public List<Expenditure> getExpendituresByCategory(String categoryId) {
+        return byCategory.get(categoryId);
+    }
+    
+    public List<Expenditure> getExpendituresByAccount(String accountId) {
+        return byAccount.get(accountId);
+    }
+    
+    /**
+     * Gets expenditures by vendor (exact match).
+     */
+    public List<Expenditure> getExpendituresByVendor(String vendor) {
+        return byVendor.get(vendor);
+    }
+    
+    /**
+     * Returns a read-only collection view (no copy is made).
+     */
+    public Collection<Expenditure> getAllExpenditures() {
+        return new AbstractCollection<Expenditure>() {
+            @Override
+            public Iterator<Expenditure> iterator() {
+                return expenditures.iterator();
+            }
+            
+            @Override
+            public int size() {
+                return expenditures.size();
+            }
+        };
+    }
+    
+    public int size() {
+        return expenditures.size();
+    }
+    
+    public Expenditure[] toArray() {
+        Expenditure[] result = new Expenditure[expenditures.size()];
+        int i = 0;
+        for (Expenditure expenditure : expenditures) {
+            result[i++] = expenditure;
+        }
+        return result;
+    }
+    
+    @Override
+    public Iterator<Expenditure> iterator() {
+        return expenditures.iterator();
+    }
+}
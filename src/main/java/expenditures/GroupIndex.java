@@ -0,0 +1,77 @@
+package expenditures;
+
+import java.util.*;
+
+/**
+ * Secondary index grouping expenditures by a key such as category or vendor.
+ * Remembers the key each expenditure was filed under, so it can be moved
+ * even after the expenditure itself has been edited in place. Groups are held
+ * in persistent maps, so groups() hands a snapshot its own frozen copy in O(1).
+ */
+class GroupIndex {
+    private PersistentHashMap<String, PersistentHashMap<String, Expenditure>> groups;
+    private final Map<String, String> keyByExpenditureId;
+    
+    GroupIndex() {
+        this.groups = PersistentHashMap.empty();
+        this.keyByExpenditureId = new HashMap<>();
+    }
+    
+    /**
+     * Files an expenditure under a key, replacing any previous filing.
+     */
+    void put(String key, Expenditure expenditure) {
+        remove(expenditure.getExpenditureId());
+        if (key != null) {
+            PersistentHashMap<String, Expenditure> group = groups.get(key);
+            if (group == null) {
+                group = PersistentHashMap.empty();
+            }
+            groups = groups.put(key, group.put(expenditure.getExpenditureId(), expenditure));
+            keyByExpenditureId.put(expenditure.getExpenditureId(), key);
+        }
+    }
+    
+    /**
+     * Removes an expenditure from whichever group it was filed under.
+     */
+    void remove(String expenditureId) {
+        String key = keyByExpenditureId.remove(expenditureId);
+        if (key != null) {
+            PersistentHashMap<String, Expenditure> group = groups.get(key).remove(expenditureId);
+            groups = group.isEmpty() ? groups.remove(key) : groups.put(key, group);
+        }
+    }
+    
+    /**
+     * Gets the groups as they stand now; later puts and removes do not affect the result.
+     */
+    Groups groups() {
+        return new Groups(groups);
+    }
+    
+    /**
+     * Frozen view of the groups at one version.
+     */
+    static final class Groups {
+        private final PersistentHashMap<String, PersistentHashMap<String, Expenditure>> groups;
+        
+        private Groups(PersistentHashMap<String, PersistentHashMap<String, Expenditure>> groups) {
+            this.groups = groups;
+        }
+        
+        /**
+         * Gets the expenditures filed under a key.
+         */
+        List<Expenditure> get(String key) {
+            List<Expenditure> result = new ArrayList<>();
+            PersistentHashMap<String, Expenditure> group = key != null ? groups.get(key) : null;
+            if (group != null) {
+                for (Expenditure expenditure : group) {
+                    result.add(expenditure);
+                }
+            }
+            return result;
+        }
+    }
+}
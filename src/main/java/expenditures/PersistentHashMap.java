@@ -0,0 +1,365 @@
+package expenditures;
+
+import java.util.*;
+
+/**
+ * Immutable hash array mapped trie. put and remove return a new map that shares
+ * every untouched node with the old one, copying only the O(log32 n) nodes on the
+ * path to the changed key, so any version can be kept as a snapshot for free.
+ */
+final class PersistentHashMap<K, V> implements Iterable<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final BitmapNode EMPTY_ROOT = new BitmapNode(0, new Object[0]);
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(EMPTY_ROOT, 0);
+    
+    private final BitmapNode root;
+    private final int size;
+    
+    private PersistentHashMap(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+    
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        int hash = hash(key);
+        Object node = root;
+        int shift = 0;
+        while (true) {
+            if (node instanceof BitmapNode) {
+                BitmapNode bitmapNode = (BitmapNode) node;
+                int bit = bit(hash, shift);
+                if ((bitmapNode.bitmap & bit) == 0) {
+                    return null;
+                }
+                node = bitmapNode.slots[bitmapNode.index(bit)];
+                shift += BITS;
+            } else if (node instanceof Leaf) {
+                Leaf leaf = (Leaf) node;
+                return leaf.matches(hash, key) ? (V) leaf.value : null;
+            } else {
+                Leaf leaf = ((CollisionNode) node).find(key);
+                return leaf != null ? (V) leaf.value : null;
+            }
+        }
+    }
+    
+    boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+    
+    /**
+     * Returns a map with the key bound to the value. Null values are not supported.
+     */
+    PersistentHashMap<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Object newRoot = put(root, 0, new Leaf(hash(key), key, value), added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>((BitmapNode) newRoot, added[0] ? size + 1 : size);
+    }
+    
+    /**
+     * Returns a map without the key (this map if the key is absent).
+     */
+    PersistentHashMap<K, V> remove(Object key) {
+        Object newRoot = remove(root, 0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot != null ? (BitmapNode) newRoot : EMPTY_ROOT, size - 1);
+    }
+    
+    /**
+     * Iterates values in trie (hash) order.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new ValueIterator<>(root);
+    }
+    
+    private static Object put(Object node, int shift, Leaf leaf, boolean[] added) {
+        if (node instanceof CollisionNode) {
+            CollisionNode collision = (CollisionNode) node;
+            if (collision.hash == leaf.hash) {
+                return collision.put(leaf, added);
+            }
+            // Different hash below a shared prefix: push the collision node down one level
+            BitmapNode wrapper = new BitmapNode(bit(collision.hash, shift), new Object[] {collision});
+            return put(wrapper, shift, leaf, added);
+        }
+        
+        BitmapNode bitmapNode = (BitmapNode) node;
+        int bit = bit(leaf.hash, shift);
+        int index = bitmapNode.index(bit);
+        if ((bitmapNode.bitmap & bit) == 0) {
+            added[0] = true;
+            return bitmapNode.insert(bit, index, leaf);
+        }
+        
+        Object slot = bitmapNode.slots[index];
+        if (slot instanceof Leaf) {
+            Leaf existing = (Leaf) slot;
+            if (existing.matches(leaf.hash, leaf.key)) {
+                return existing.value == leaf.value ? node : bitmapNode.replace(index, leaf);
+            }
+            added[0] = true;
+            return bitmapNode.replace(index, merge(existing, leaf, shift + BITS));
+        }
+        
+        Object child = put(slot, shift + BITS, leaf, added);
+        return child == slot ? node : bitmapNode.replace(index, child);
+    }
+    
+    /**
+     * Builds the smallest subtree holding two leaves whose hashes agree below the given shift.
+     */
+    private static Object merge(Leaf a, Leaf b, int shift) {
+        if (a.hash == b.hash) {
+            return new CollisionNode(a.hash, new Leaf[] {a, b});
+        }
+        int bitA = bit(a.hash, shift);
+        int bitB = bit(b.hash, shift);
+        if (bitA == bitB) {
+            return new BitmapNode(bitA, new Object[] {merge(a, b, shift + BITS)});
+        }
+        Object[] slots = Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[] {a, b} : new Object[] {b, a};
+        return new BitmapNode(bitA | bitB, slots);
+    }
+    
+    /**
+     * Removes a key below a node. Returns the same node if the key is absent, null if the
+     * subtree becomes empty, or a lone Leaf so the parent can inline it.
+     */
+    private static Object remove(Object node, int shift, int hash, Object key) {
+        if (node instanceof CollisionNode) {
+            return ((CollisionNode) node).remove(key);
+        }
+        
+        BitmapNode bitmapNode = (BitmapNode) node;
+        int bit = bit(hash, shift);
+        if ((bitmapNode.bitmap & bit) == 0) {
+            return node;
+        }
+        
+        int index = bitmapNode.index(bit);
+        Object slot = bitmapNode.slots[index];
+        Object child;
+        if (slot instanceof Leaf) {
+            if (!((Leaf) slot).matches(hash, key)) {
+                return node;
+            }
+            child = null;
+        } else {
+            child = remove(slot, shift + BITS, hash, key);
+            if (child == slot) {
+                return node;
+            }
+        }
+        
+        if (child != null) {
+            if (shift > 0 && bitmapNode.slots.length == 1 && child instanceof Leaf) {
+                return child;
+            }
+            return bitmapNode.replace(index, child);
+        }
+        if (bitmapNode.slots.length == 1) {
+            return null;
+        }
+        BitmapNode shrunk = bitmapNode.delete(bit, index);
+        if (shift > 0 && shrunk.slots.length == 1 && shrunk.slots[0] instanceof Leaf) {
+            return shrunk.slots[0];
+        }
+        return shrunk;
+    }
+    
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+    
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+    
+    private static final class Leaf {
+        private final int hash;
+        private final Object key;
+        private final Object value;
+        
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+        
+        boolean matches(int hash, Object key) {
+            return this.hash == hash && this.key.equals(key);
+        }
+    }
+    
+    /**
+     * Interior node: a 32-bit bitmap of occupied positions and a compact array of
+     * Leaf or child node slots. Every modification returns a copy.
+     */
+    private static final class BitmapNode {
+        private final int bitmap;
+        private final Object[] slots;
+        
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+        
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+        
+        BitmapNode insert(int bit, int index, Object slot) {
+            Object[] copy = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            copy[index] = slot;
+            System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+            return new BitmapNode(bitmap | bit, copy);
+        }
+        
+        BitmapNode replace(int index, Object slot) {
+            Object[] copy = slots.clone();
+            copy[index] = slot;
+            return new BitmapNode(bitmap, copy);
+        }
+        
+        BitmapNode delete(int bit, int index) {
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+    }
+    
+    /**
+     * Leaves whose keys have identical hashes.
+     */
+    private static final class CollisionNode {
+        private final int hash;
+        private final Leaf[] leaves;
+        
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+        
+        Leaf find(Object key) {
+            for (Leaf leaf : leaves) {
+                if (leaf.key.equals(key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+        
+        CollisionNode put(Leaf leaf, boolean[] added) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    if (leaves[i].value == leaf.value) {
+                        return this;
+                    }
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            added[0] = true;
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = leaf;
+            return new CollisionNode(hash, copy);
+        }
+        
+        Object remove(Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            return this;
+        }
+    }
+    
+    /**
+     * Depth-first walk over the trie using an explicit stack of slot arrays.
+     */
+    private static final class ValueIterator<V> implements Iterator<V> {
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Leaf next;
+        
+        ValueIterator(BitmapNode root) {
+            push(root.slots);
+            advance();
+        }
+        
+        private void push(Object[] slots) {
+            arrays.push(slots);
+            positions.push(0);
+        }
+        
+        private void advance() {
+            next = null;
+            while (next == null && !arrays.isEmpty()) {
+                Object[] slots = arrays.peek();
+                int position = positions.pop();
+                if (position >= slots.length) {
+                    arrays.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+                
+                Object slot = slots[position];
+                if (slot instanceof Leaf) {
+                    next = (Leaf) slot;
+                } else if (slot instanceof BitmapNode) {
+                    push(((BitmapNode) slot).slots);
+                } else {
+                    push(((CollisionNode) slot).leaves);
+                }
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) next.value;
+            advance();
+            return value;
+        }
+    }
+}
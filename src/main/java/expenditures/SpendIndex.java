@@ -0,0 +1,147 @@
+package expenditures;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Date-range spending index over expenditures, kept globally and per
+ * category, account and project. Each dimension is a DateRangeIndex, so
+ * totals over arbitrary [startDate, endDate] windows answer in O(log D).
+ * Each add/update/remove is applied atomically with respect to queries.
+ */
+public class SpendIndex {
+    private final DateRangeIndex totalIndex;
+    private final Map<String, DateRangeIndex> categoryIndexes;
+    private final Map<String, DateRangeIndex> accountIndexes;
+    private final Map<String, DateRangeIndex> projectIndexes;
+    private final Map<String, Posting> postings; // What was indexed per expenditure, so edits can be backed out
+    
+    public SpendIndex() {
+        this.totalIndex = new DateRangeIndex();
+        this.categoryIndexes = new HashMap<>();
+        this.accountIndexes = new HashMap<>();
+        this.projectIndexes = new HashMap<>();
+        this.postings = new HashMap<>();
+    }
+    
+    /**
+     * Indexes an expenditure. Re-adding a known expenditure replaces its previous values.
+     */
+    public synchronized void add(Expenditure expenditure) {
+        remove(expenditure.getExpenditureId());
+        
+        Posting posting = new Posting(expenditure);
+        postings.put(expenditure.getExpenditureId(), posting);
+        apply(posting, posting.amount);
+    }
+    
+    /**
+     * Re-indexes an expenditure whose amount, date or links may have changed.
+     */
+    public synchronized void update(Expenditure expenditure) {
+        add(expenditure);
+    }
+    
+    /**
+     * Removes an expenditure from the index.
+     */
+    public synchronized void remove(String expenditureId) {
+        Posting posting = postings.remove(expenditureId);
+        if (posting != null) {
+            apply(posting, posting.amount.negate());
+        }
+    }
+    
+    /**
+     * Gets the index across all expenditures.
+     */
+    public synchronized DateRangeIndex getTotalIndex() {
+        return totalIndex;
+    }
+    
+    /**
+     * Gets the index for a category (empty if the category has no spending).
+     */
+    public synchronized DateRangeIndex getCategoryIndex(String categoryId) {
+        return categoryIndexes.getOrDefault(categoryId, new DateRangeIndex());
+    }
+    
+    /**
+     * Gets the index for an account (empty if the account has no spending).
+     */
+    public synchronized DateRangeIndex getAccountIndex(String accountId) {
+        return accountIndexes.getOrDefault(accountId, new DateRangeIndex());
+    }
+    
+    /**
+     * Gets the index for a project (empty if the project has no spending).
+     */
+    public synchronized DateRangeIndex getProjectIndex(String projectId) {
+        return projectIndexes.getOrDefault(projectId, new DateRangeIndex());
+    }
+    
+    /**
+     * Total spending within a date range.
+     */
+    public synchronized BigDecimal getTotal(LocalDate startDate, LocalDate endDate) {
+        return totalIndex.sumRange(startDate, endDate);
+    }
+    
+    /**
+     * Total spending for a category within a date range.
+     */
+    public synchronized BigDecimal getCategoryTotal(String categoryId, LocalDate startDate, LocalDate endDate) {
+        return getCategoryIndex(categoryId).sumRange(startDate, endDate);
+    }
+    
+    /**
+     * Total spending for an account within a date range.
+     */
+    public synchronized BigDecimal getAccountTotal(String accountId, LocalDate startDate, LocalDate endDate) {
+        return getAccountIndex(accountId).sumRange(startDate, endDate);
+    }
+    
+    /**
+     * Total spending for a project within a date range.
+     */
+    public synchronized BigDecimal getProjectTotal(String projectId, LocalDate startDate, LocalDate endDate) {
+        return getProjectIndex(projectId).sumRange(startDate, endDate);
+    }
+    
+    /**
+     * Applies a signed amount for a posting to every index it belongs to.
+     */
+    private void apply(Posting posting, BigDecimal amount) {
+        totalIndex.add(posting.date, amount);
+        applyTo(categoryIndexes, posting.categoryId, posting.date, amount);
+        applyTo(accountIndexes, posting.accountId, posting.date, amount);
+        applyTo(projectIndexes, posting.projectId, posting.date, amount);
+    }
+    
+    private void applyTo(Map<String, DateRangeIndex> indexes, String key, LocalDate date, BigDecimal amount) {
+        if (key != null) {
+            indexes.computeIfAbsent(key, k -> new DateRangeIndex()).add(date, amount);
+        }
+    }
+    
+    /**
+     * Values an expenditure was indexed with. Expenditures are mutable, so
+     * these are copied at indexing time rather than read back on removal.
+     */
+    private static class Posting {
+        private final LocalDate date;
+        private final BigDecimal amount;
+        private final String categoryId;
+        private final String accountId;
+        private final String projectId;
+        
+        Posting(Expenditure expenditure) {
+            this.date = expenditure.getDate();
+            this.amount = expenditure.getAmount();
+            this.categoryId = expenditure.getCategoryId();
+            this.accountId = expenditure.getAccountId();
+            this.projectId = expenditure.getProjectId();
+        }
+    }
+}
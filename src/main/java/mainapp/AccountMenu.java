@@ -12,8 +12,12 @@ public class AccountMenu {
     private Scanner scanner;
     
     public AccountMenu(Scanner scanner) {
+        this(scanner, new AccountManager());
+    }
+    
+    public AccountMenu(Scanner scanner, AccountManager accountManager) {
         this.scanner = scanner;
-        this.accountManager = new AccountManager();
+        this.accountManager = accountManager;
     }
     
     public void showMenu() {
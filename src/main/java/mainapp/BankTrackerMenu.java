@@ -14,9 +14,17 @@ public class BankTrackerMenu {
     private Scanner scanner;
     
     public BankTrackerMenu(Scanner scanner) {
+        this(scanner, new BankTracker(), new AccountManager());
+    }
+    
+    /**
+     * Creates a menu over a tracker and account manager shared with the rest of the application.
+     * Tracked accounts report their own balance changes, so no reload is needed after postings.
+     */
+    public BankTrackerMenu(Scanner scanner, BankTracker bankTracker, AccountManager accountManager) {
         this.scanner = scanner;
-        this.bankTracker = new BankTracker();
-        this.accountManager = new AccountManager();
+        this.bankTracker = bankTracker;
+        this.accountManager = accountManager;
         loadAccountsIntoTracker();
     }
     
@@ -57,6 +65,9 @@ public class BankTrackerMenu {
                 case 10:
                     refreshTracker();
                     break;
+                case 11:
+                    viewAccountsNearThreshold();
+                    break;
                 case 0:
                     running = false;
                     break;
@@ -83,6 +94,7 @@ public class BankTrackerMenu {
         System.out.println("8. Clear Read Alerts");
         System.out.println("9. View Balance Statistics");
         System.out.println("10. Refresh Tracker");
+        System.out.println("11. View Accounts Near Threshold");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
     }
@@ -150,6 +162,27 @@ public class BankTrackerMenu {
         }
     }
     
+    private void viewAccountsNearThreshold() {
+        System.out.print("Enter margin above threshold: ");
+        BigDecimal margin = getBigDecimalInput();
+        
+        List<Account> accounts = bankTracker.getAccountsNearThreshold(margin);
+        
+        if (accounts.isEmpty()) {
+            System.out.println("No accounts are within $" + margin + " of their alert thresholds.");
+        } else {
+            System.out.println("\n--- Accounts Within $" + margin + " of Alert Thresholds ---");
+            for (Account account : accounts) {
+                BigDecimal threshold = bankTracker.getAlertThreshold(account.getAccountId());
+                System.out.println(account.getAccountName() + " (" + account.getAccountId() + ")");
+                System.out.println("  Current Balance: $" + account.getBalance());
+                System.out.println("  Alert Threshold: $" + threshold);
+                System.out.println("  Headroom: $" + account.getBalance().subtract(threshold));
+                System.out.println();
+            }
+        }
+    }
+    
     private void viewAlerts() {
         List<BalanceAlert> alerts = bankTracker.getAlerts();
         
@@ -213,7 +246,7 @@ public class BankTrackerMenu {
     }
     
     private void loadAccountsIntoTracker() {
-        // Clear current tracker and reload with fresh data
+        // Picks up accounts added since the last load; existing ones are repositioned
         Collection<Account> accounts = accountManager.getAllAccounts();
         for (Account account : accounts) {
             bankTracker.updateAccount(account);
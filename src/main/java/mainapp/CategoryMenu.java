@@ -11,8 +11,12 @@ public class CategoryMenu {
     private Scanner scanner;
     
     public CategoryMenu(Scanner scanner) {
+        this(scanner, new CategoryManager());
+    }
+    
+    public CategoryMenu(Scanner scanner, CategoryManager categoryManager) {
         this.scanner = scanner;
-        this.categoryManager = new CategoryManager();
+        this.categoryManager = categoryManager;
     }
     
     public void showMenu() {
@@ -46,6 +50,9 @@ public class CategoryMenu {
                 case 8:
                     deleteCategory();
                     break;
+                case 9:
+                    viewCategorySpend();
+                    break;
                 case 0:
                     running = false;
                     break;
@@ -70,6 +77,7 @@ public class CategoryMenu {
         System.out.println("6. Update Category");
         System.out.println("7. Deactivate Category");
         System.out.println("8. Delete Category");
+        System.out.println("9. View Category Spend");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
     }
@@ -217,6 +225,25 @@ public class CategoryMenu {
         }
     }
     
+    private void viewCategorySpend() {
+        System.out.print("Enter category ID: ");
+        String id = scanner.nextLine();
+        
+        Category category = categoryManager.getCategory(id);
+        if (category == null) {
+            System.out.println("Category not found.");
+            return;
+        }
+        
+        System.out.println("\n--- Spend for " + category.getCategoryName() + " ---");
+        System.out.println("Direct: $" + categoryManager.getSpend(id));
+        System.out.println("Including subcategories: $" + categoryManager.getSubtreeSpend(id));
+        for (Category subcategory : categoryManager.getSubcategories(id)) {
+            System.out.println("  " + subcategory.getCategoryName() + ": $" +
+                             categoryManager.getSubtreeSpend(subcategory.getCategoryId()));
+        }
+    }
+    
     private int getChoice() {
         try {
             return Integer.parseInt(scanner.nextLine());
@@ -18,12 +18,21 @@ public class ExpenditureMenu {
     private CategoryManager categoryManager;
     private Scanner scanner;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int HISTORY_PAGE_SIZE = 10;
     
     public ExpenditureMenu(Scanner scanner) {
+        this(scanner, new ExpenditureManager(), new AccountManager(), new CategoryManager());
+    }
+    
+    /**
+     * Creates a menu over managers shared with the rest of the application.
+     */
+    public ExpenditureMenu(Scanner scanner, ExpenditureManager expenditureManager,
+                           AccountManager accountManager, CategoryManager categoryManager) {
         this.scanner = scanner;
-        this.expenditureManager = new ExpenditureManager();
-        this.accountManager = new AccountManager();
-        this.categoryManager = new CategoryManager();
+        this.expenditureManager = expenditureManager;
+        this.accountManager = accountManager;
+        this.categoryManager = categoryManager;
     }
     
     public void showMenu() {
@@ -54,6 +63,9 @@ public class ExpenditureMenu {
                 case 7:
                     deleteExpenditure();
                     break;
+                case 8:
+                    viewRecentActivity();
+                    break;
                 case 0:
                     running = false;
                     break;
@@ -77,6 +89,7 @@ public class ExpenditureMenu {
         System.out.println("5. View Expenditures by Date Range");
         System.out.println("6. Update Expenditure");
         System.out.println("7. Delete Expenditure");
+        System.out.println("8. View Recent Activity");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
     }
@@ -127,6 +140,34 @@ public class ExpenditureMenu {
         }
     }
     
+    private void viewRecentActivity() {
+        System.out.println("\n--- Recent Activity (most recent first) ---");
+        int total = expenditureManager.getExpenditureHistorySize();
+        if (total == 0) {
+            System.out.println("No expenditures found.");
+            return;
+        }
+        
+        int offset = 0;
+        while (offset < total) {
+            List<Expenditure> page = expenditureManager.getExpenditureHistory(offset, HISTORY_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (Expenditure exp : page) {
+                System.out.println(exp);
+            }
+            offset += page.size();
+            
+            if (offset < total) {
+                System.out.printf("Showing %d of %d. Press Enter for more, or q to stop: ", offset, total);
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+            }
+        }
+    }
+    
     private void viewExpendituresByAccount() {
         System.out.print("Enter account ID: ");
         String accountId = scanner.nextLine();
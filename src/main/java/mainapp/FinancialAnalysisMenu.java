@@ -1,6 +1,7 @@
 package mainapp;
 
 import analysis.*;
+import categories.CategoryManager;
 import expenditures.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,12 +14,22 @@ import java.util.*;
  */
 public class FinancialAnalysisMenu {
     private ExpenditureManager expenditureManager;
+    private CategoryManager categoryManager;
     private Scanner scanner;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
     public FinancialAnalysisMenu(Scanner scanner) {
+        this(scanner, new ExpenditureManager());
+    }
+    
+    public FinancialAnalysisMenu(Scanner scanner, ExpenditureManager expenditureManager) {
+        this(scanner, expenditureManager, new CategoryManager());
+    }
+    
+    public FinancialAnalysisMenu(Scanner scanner, ExpenditureManager expenditureManager, CategoryManager categoryManager) {
         this.scanner = scanner;
-        this.expenditureManager = new ExpenditureManager();
+        this.expenditureManager = expenditureManager;
+        this.categoryManager = categoryManager;
     }
     
     public void showMenu() {
@@ -55,6 +66,12 @@ public class FinancialAnalysisMenu {
                 case 9:
                     calculateEfficiencyMetrics();
                     break;
+                case 10:
+                    showDashboard();
+                    break;
+                case 11:
+                    analyzeCategoryRollup();
+                    break;
                 case 0:
                     running = false;
                     break;
@@ -80,6 +97,8 @@ public class FinancialAnalysisMenu {
         System.out.println("7. Analyze Trends");
         System.out.println("8. Top Spending Categories");
         System.out.println("9. Calculate Efficiency Metrics");
+        System.out.println("10. Full Dashboard Report");
+        System.out.println("11. Category Hierarchy Rollup");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
     }
@@ -92,8 +111,7 @@ public class FinancialAnalysisMenu {
         System.out.print("Enter end date (yyyy-MM-dd): ");
         LocalDate endDate = getDateInput();
         
-        Expenditure[] expenditures = getExpenditureArray();
-        BigDecimal burnRate = FinancialAnalysis.calculateBurnRate(expenditures, startDate, endDate);
+        BigDecimal burnRate = FinancialAnalysis.calculateBurnRate(getSpendIndex().getTotalIndex(), startDate, endDate);
         
         System.out.println("\n--- Burn Rate Analysis ---");
         System.out.println("Period: " + startDate + " to " + endDate);
@@ -111,7 +129,7 @@ public class FinancialAnalysisMenu {
             return;
         }
         
-        Expenditure[] expenditures = getExpenditureArray();
+        ExpenditureSnapshot expenditures = expenditureManager.snapshot();
         Map<String, BigDecimal> monthlySpending = FinancialAnalysis.calculateMonthlySpending(expenditures, year);
         
         System.out.println("\n--- Monthly Spending Analysis for " + year + " ---");
@@ -128,8 +146,10 @@ public class FinancialAnalysisMenu {
     }
     
     private void analyzeByCategoryIds() {
-        Expenditure[] expenditures = getExpenditureArray();
-        Map<String, CategoryAnalysis> analysis = FinancialAnalysis.analyzeByCategoryIds(expenditures);
+        // Resolve drill-downs against the same snapshot the totals come from
+        ExpenditureSnapshot snapshot = expenditureManager.snapshot();
+        Map<String, CategoryAnalysis> analysis = FinancialAnalysis.analyzeByCategoryIdsParallel(snapshot.getAllExpenditures(), 
+                                                     snapshot::getExpendituresByCategory);
         
         System.out.println("\n--- Category Analysis ---");
         if (analysis.isEmpty()) {
@@ -147,9 +167,33 @@ public class FinancialAnalysisMenu {
         }
     }
     
+    private void analyzeCategoryRollup() {
+        CategoryRollup rollup = FinancialAnalysis.analyzeCategoryRollup(expenditureManager.snapshot(),
+                                                                        categoryManager.getAllCategories());
+        
+        System.out.println("\n--- Category Hierarchy Rollup ---");
+        List<String> categoryIds = rollup.getCategoryIdsInTreeOrder();
+        if (categoryIds.isEmpty()) {
+            System.out.println("No categories found.");
+            return;
+        }
+        
+        // Tree order puts every subcategory under its parent, so indenting by depth draws the hierarchy
+        for (String categoryId : categoryIds) {
+            String indent = "  ".repeat(rollup.getDepth(categoryId));
+            System.out.println(indent + categoryId + ": $" + rollup.getSubtreeTotal(categoryId) +
+                             " (direct $" + rollup.getDirectTotal(categoryId) + ", " +
+                             rollup.getSubtreeCount(categoryId) + " transactions)");
+        }
+        if (rollup.getUnassignedTotal().signum() != 0) {
+            System.out.println("Uncategorized: $" + rollup.getUnassignedTotal());
+        }
+    }
+    
     private void analyzeByVendor() {
-        Expenditure[] expenditures = getExpenditureArray();
-        Map<String, VendorAnalysis> analysis = FinancialAnalysis.analyzeByVendor(expenditures);
+        ExpenditureSnapshot snapshot = expenditureManager.snapshot();
+        Map<String, VendorAnalysis> analysis = FinancialAnalysis.analyzeByVendorParallel(snapshot.getAllExpenditures(), 
+                                                 snapshot::getExpendituresByVendor);
         
         System.out.println("\n--- Vendor Analysis ---");
         if (analysis.isEmpty()) {
@@ -183,8 +227,7 @@ public class FinancialAnalysisMenu {
             return;
         }
         
-        Expenditure[] expenditures = getExpenditureArray();
-        BigDecimal projection = FinancialAnalysis.projectFutureSpending(expenditures, startDate, endDate, futureDays);
+        BigDecimal projection = FinancialAnalysis.projectFutureSpending(getSpendIndex().getTotalIndex(), startDate, endDate, futureDays);
         
         System.out.println("\n--- Future Spending Projection ---");
         System.out.println("Based on period: " + startDate + " to " + endDate);
@@ -202,11 +245,18 @@ public class FinancialAnalysisMenu {
         System.out.print("Enter end date (yyyy-MM-dd): ");
         LocalDate endDate = getDateInput();
         
-        Expenditure[] expenditures = getExpenditureArray();
-        BigDecimal variance = FinancialAnalysis.calculateBudgetVariance(expenditures, plannedBudget, startDate, endDate);
+        System.out.print("Enter category ID to scope the budget (or press Enter for all): ");
+        String categoryId = scanner.nextLine().trim();
+        
+        DateRangeIndex index = categoryId.isEmpty() ? getSpendIndex().getTotalIndex() 
+                                                    : getSpendIndex().getCategoryIndex(categoryId);
+        BigDecimal variance = FinancialAnalysis.calculateBudgetVariance(index, plannedBudget, startDate, endDate);
         
         System.out.println("\n--- Budget Variance Results ---");
         System.out.println("Period: " + startDate + " to " + endDate);
+        if (!categoryId.isEmpty()) {
+            System.out.println("Category: " + categoryId);
+        }
         System.out.println("Planned Budget: $" + plannedBudget);
         System.out.println("Actual Spending: $" + plannedBudget.add(variance));
         System.out.println("Variance: $" + variance);
@@ -228,17 +278,52 @@ public class FinancialAnalysisMenu {
         System.out.print("Enter end date (yyyy-MM-dd): ");
         LocalDate endDate = getDateInput();
         
-        Expenditure[] expenditures = getExpenditureArray();
-        TrendAnalysis trendAnalysis = FinancialAnalysis.analyzeTrends(expenditures, startDate, endDate);
+        System.out.println("Select bucket size:");
+        System.out.println("1. Day");
+        System.out.println("2. Week");
+        System.out.println("3. Month");
+        System.out.println("4. Quarter");
+        System.out.print("Enter choice: ");
+        
+        TrendEngine.BucketSize bucketSize;
+        switch (getChoice()) {
+            case 1: bucketSize = TrendEngine.BucketSize.DAY; break;
+            case 3: bucketSize = TrendEngine.BucketSize.MONTH; break;
+            case 4: bucketSize = TrendEngine.BucketSize.QUARTER; break;
+            default: bucketSize = TrendEngine.BucketSize.WEEK;
+        }
+        
+        System.out.print("Break down by category? (y/n): ");
+        boolean byCategory = scanner.nextLine().trim().equalsIgnoreCase("y");
+        
+        ExpenditureSnapshot expenditures = expenditureManager.snapshot();
         
         System.out.println("\n--- Trend Analysis Results ---");
         System.out.println("Period: " + startDate + " to " + endDate);
+        
+        if (byCategory) {
+            Map<String, TrendAnalysis> trends = TrendEngine.analyzeByCategory(expenditures, startDate, endDate, bucketSize);
+            if (trends.isEmpty()) {
+                System.out.println("No expenditures found in this period.");
+            }
+            for (Map.Entry<String, TrendAnalysis> entry : trends.entrySet()) {
+                System.out.println("\nCategory: " + entry.getKey());
+                printTrend(entry.getValue());
+            }
+        } else {
+            printTrend(FinancialAnalysis.analyzeTrends(expenditures, startDate, endDate, bucketSize));
+        }
+    }
+    
+    private void printTrend(TrendAnalysis trendAnalysis) {
         System.out.println("Overall Trend: " + trendAnalysis.getTrendDirection());
         
-        List<BigDecimal> weeklySpending = trendAnalysis.getWeeklySpending();
-        System.out.println("\nWeekly Spending Breakdown:");
-        for (int i = 0; i < weeklySpending.size(); i++) {
-            System.out.println("Week " + (i + 1) + ": $" + weeklySpending.get(i));
+        String label = trendAnalysis.getBucketSize().name().charAt(0) 
+                     + trendAnalysis.getBucketSize().name().substring(1).toLowerCase();
+        List<BigDecimal> bucketSpending = trendAnalysis.getBucketSpending();
+        System.out.println(label + " Spending Breakdown:");
+        for (int i = 0; i < bucketSpending.size(); i++) {
+            System.out.println(label + " " + (i + 1) + ": $" + bucketSpending.get(i));
         }
     }
     
@@ -251,7 +336,7 @@ public class FinancialAnalysisMenu {
             return;
         }
         
-        Expenditure[] expenditures = getExpenditureArray();
+        ExpenditureSnapshot expenditures = expenditureManager.snapshot();
         List<CategorySummary> topCategories = FinancialAnalysis.getTopSpendingCategories(expenditures, topN);
         
         System.out.println("\n--- Top " + topN + " Spending Categories ---");
@@ -273,7 +358,7 @@ public class FinancialAnalysisMenu {
         System.out.print("Enter end date (yyyy-MM-dd): ");
         LocalDate endDate = getDateInput();
         
-        Expenditure[] expenditures = getExpenditureArray();
+        ExpenditureSnapshot expenditures = expenditureManager.snapshot();
         EfficiencyMetrics metrics = FinancialAnalysis.calculateEfficiencyMetrics(expenditures, startDate, endDate);
         
         System.out.println("\n--- Efficiency Metrics Results ---");
@@ -284,9 +369,50 @@ public class FinancialAnalysisMenu {
         System.out.println("Average Transaction Amount: $" + metrics.getAverageTransactionAmount());
     }
     
-    private Expenditure[] getExpenditureArray() {
-        Collection<Expenditure> expenditures = expenditureManager.getAllExpenditures();
-        return expenditures.toArray(new Expenditure[0]);
+    private void showDashboard() {
+        System.out.println("\n--- Full Dashboard Report ---");
+        System.out.print("Enter start date (yyyy-MM-dd): ");
+        LocalDate startDate = getDateInput();
+        
+        System.out.print("Enter end date (yyyy-MM-dd): ");
+        LocalDate endDate = getDateInput();
+        
+        System.out.print("Enter number of top categories to display: ");
+        int topN = getChoice();
+        if (topN <= 0) {
+            topN = 5;
+        }
+        
+        int year = endDate.getYear();
+        AnalysisReport report = FinancialAnalysis.fullReport(expenditureManager.snapshot(), startDate, endDate, year, topN);
+        EfficiencyMetrics metrics = report.getEfficiencyMetrics();
+        
+        System.out.println("\nPeriod: " + startDate + " to " + endDate);
+        System.out.println("Total Spent: $" + metrics.getTotalSpent());
+        System.out.println("Transaction Count: " + metrics.getTransactionCount());
+        System.out.println("Unique Vendors: " + metrics.getUniqueVendorCount());
+        System.out.println("Average Transaction Amount: $" + metrics.getAverageTransactionAmount());
+        System.out.println("Daily Burn Rate: $" + report.getBurnRate());
+        System.out.println("Weekly Trend: " + report.getTrendAnalysis().getTrendDirection());
+        
+        System.out.println("\nMonthly Spending for " + year + ":");
+        for (Map.Entry<String, BigDecimal> entry : new TreeMap<>(report.getMonthlySpending()).entrySet()) {
+            System.out.println("  " + entry.getKey() + ": $" + entry.getValue());
+        }
+        
+        System.out.println("\nTop " + topN + " Categories:");
+        List<CategorySummary> topCategories = report.getTopCategories();
+        for (int i = 0; i < topCategories.size(); i++) {
+            CategorySummary summary = topCategories.get(i);
+            System.out.println("  " + (i + 1) + ". " + summary.getCategoryId() + ": $" + summary.getTotalAmount());
+        }
+        
+        System.out.println("\nCategories analyzed: " + report.getCategoryAnalysis().size());
+        System.out.println("Vendors analyzed: " + report.getVendorAnalysis().size());
+    }
+    
+    private SpendIndex getSpendIndex() {
+        return expenditureManager.getSpendIndex();
     }
     
     private int getChoice() {
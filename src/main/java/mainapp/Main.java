@@ -1,5 +1,12 @@
 package mainapp;
 
+import accounts.AccountManager;
+import categories.CategoryManager;
+import categories.CategorySpendTracker;
+import expenditures.ExpenditureManager;
+import receipts.ReceiptManager;
+import tracker.BalanceEngine;
+import tracker.BankTracker;
 import java.util.Scanner;
 
 /**
@@ -21,14 +28,29 @@ public class Main {
         
         Scanner scanner = new Scanner(System.in);
         
+        // Shared managers, so every menu sees the same accounts and expenditures
+        AccountManager accountManager = new AccountManager();
+        ExpenditureManager expenditureManager = new ExpenditureManager();
+        CategoryManager categoryManager = new CategoryManager();
+        ReceiptManager receiptManager = new ReceiptManager();
+        BankTracker bankTracker = new BankTracker();
+        
+        // Expenditure changes debit/credit their accounts, which keeps the tracker current
+        expenditureManager.getEventBus().subscribe(new BalanceEngine(accountManager, bankTracker));
+        
+        // Category spend rollups start from the loaded expenditures and then follow changes
+        CategorySpendTracker categorySpendTracker = new CategorySpendTracker(categoryManager);
+        categorySpendTracker.seed(expenditureManager.snapshot());
+        expenditureManager.getEventBus().subscribe(categorySpendTracker);
+        
         // Initialize menu handlers
-        expenditureMenu = new ExpenditureMenu(scanner);
-        categoryMenu = new CategoryMenu(scanner);
-        accountMenu = new AccountMenu(scanner);
-        searchSortMenu = new SearchSortMenu(scanner);
-        receiptMenu = new ReceiptMenu(scanner);
-        bankTrackerMenu = new BankTrackerMenu(scanner);
-        financialAnalysisMenu = new FinancialAnalysisMenu(scanner);
+        expenditureMenu = new ExpenditureMenu(scanner, expenditureManager, accountManager, categoryManager);
+        categoryMenu = new CategoryMenu(scanner, categoryManager);
+        accountMenu = new AccountMenu(scanner, accountManager);
+        searchSortMenu = new SearchSortMenu(scanner, expenditureManager);
+        receiptMenu = new ReceiptMenu(scanner, receiptManager, expenditureManager);
+        bankTrackerMenu = new BankTrackerMenu(scanner, bankTracker, accountManager);
+        financialAnalysisMenu = new FinancialAnalysisMenu(scanner, expenditureManager, categoryManager);
         
         boolean running = true;
         
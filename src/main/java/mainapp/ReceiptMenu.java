@@ -1,7 +1,11 @@
 package mainapp;
 
 import receipts.*;
+import expenditures.Expenditure;
+import expenditures.ExpenditureManager;
 import java.math.BigDecimal;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -12,12 +16,18 @@ import java.util.*;
  */
 public class ReceiptMenu {
     private ReceiptManager receiptManager;
+    private ExpenditureManager expenditureManager;
     private Scanner scanner;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
     public ReceiptMenu(Scanner scanner) {
+        this(scanner, new ReceiptManager(), new ExpenditureManager());
+    }
+    
+    public ReceiptMenu(Scanner scanner, ReceiptManager receiptManager, ExpenditureManager expenditureManager) {
         this.scanner = scanner;
-        this.receiptManager = new ReceiptManager();
+        this.receiptManager = receiptManager;
+        this.expenditureManager = expenditureManager;
     }
     
     public void showMenu() {
@@ -51,6 +61,30 @@ public class ReceiptMenu {
                 case 8:
                     viewReceiptsByVendor();
                     break;
+                case 9:
+                    viewRecentlyProcessed();
+                    break;
+                case 10:
+                    autoValidatePendingReceipts();
+                    break;
+                case 11:
+                    autoMatchReceipts();
+                    break;
+                case 12:
+                    findDuplicateReceipts();
+                    break;
+                case 13:
+                    deleteReceipt();
+                    break;
+                case 14:
+                    exportAttachment();
+                    break;
+                case 15:
+                    cleanUpAttachments();
+                    break;
+                case 16:
+                    setProcessingPriority();
+                    break;
                 case 0:
                     running = false;
                     break;
@@ -75,6 +109,14 @@ public class ReceiptMenu {
         System.out.println("6. Validate Receipt");
         System.out.println("7. Reject Receipt");
         System.out.println("8. View Receipts by Vendor");
+        System.out.println("9. View Recently Processed");
+        System.out.println("10. Auto-Validate Pending Receipts");
+        System.out.println("11. Auto-Match Receipts to Expenditures");
+        System.out.println("12. Find Duplicate Receipts");
+        System.out.println("13. Delete Receipt");
+        System.out.println("14. Export Receipt Attachment");
+        System.out.println("15. Clean Up Unused Attachments");
+        System.out.println("16. Set Processing Priority");
         System.out.println("0. Back to Main Menu");
         System.out.print("Enter your choice: ");
     }
@@ -108,6 +150,10 @@ public class ReceiptMenu {
         receiptManager.addReceipt(receipt);
         
         System.out.println("Receipt added successfully and queued for processing!");
+        String original = receiptManager.getDuplicateOf(id);
+        if (original != null) {
+            System.out.println("Note: this looks like a duplicate of receipt " + original + ".");
+        }
     }
     
     private void viewAllReceipts() {
@@ -124,11 +170,12 @@ public class ReceiptMenu {
     }
     
     private void viewReceiptsByStatus() {
+        Map<Receipt.ReceiptStatus, Integer> counts = receiptManager.getReceiptCountsByStatus();
         System.out.println("Select status:");
-        System.out.println("1. PENDING");
-        System.out.println("2. VALIDATED");
-        System.out.println("3. REJECTED");
-        System.out.println("4. PROCESSED");
+        System.out.println("1. PENDING (" + counts.get(Receipt.ReceiptStatus.PENDING) + ")");
+        System.out.println("2. VALIDATED (" + counts.get(Receipt.ReceiptStatus.VALIDATED) + ")");
+        System.out.println("3. REJECTED (" + counts.get(Receipt.ReceiptStatus.REJECTED) + ")");
+        System.out.println("4. PROCESSED (" + counts.get(Receipt.ReceiptStatus.PROCESSED) + ")");
         System.out.print("Enter choice: ");
         
         int statusChoice = getChoice();
@@ -239,6 +286,161 @@ public class ReceiptMenu {
         }
     }
     
+    private void viewRecentlyProcessed() {
+        System.out.println("\n--- Recently Processed Receipts (oldest first) ---");
+        boolean any = false;
+        for (Receipt receipt : receiptManager.recentlyProcessed()) {
+            System.out.println(receipt);
+            any = true;
+        }
+        if (!any) {
+            System.out.println("No receipts processed yet.");
+        }
+    }
+    
+    private void autoValidatePendingReceipts() {
+        int pending = receiptManager.getProcessingQueueSize();
+        if (pending == 0) {
+            System.out.println("No receipts in processing queue.");
+            return;
+        }
+        
+        System.out.println("Validating " + pending + " pending receipts...");
+        ReceiptProcessor.ProcessingResult result;
+        try (ReceiptProcessor processor = new ReceiptProcessor(receiptManager, expenditureManager)) {
+            result = processor.processPending();
+        }
+        
+        System.out.println("Validated: " + result.getValidatedCount());
+        System.out.println("Rejected: " + result.getRejectedCount());
+        System.out.println("Left pending: " + result.getPendingCount());
+        
+        if (!result.getReasons().isEmpty()) {
+            System.out.println("\nDetails:");
+            for (Map.Entry<String, String> entry : result.getReasons().entrySet()) {
+                System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+            }
+        }
+    }
+    
+    private void autoMatchReceipts() {
+        System.out.print("Enter date tolerance in days: ");
+        int toleranceDays = getChoice();
+        if (toleranceDays < 0) {
+            System.out.println("Invalid tolerance.");
+            return;
+        }
+        
+        ReceiptReconciler reconciler = new ReceiptReconciler(receiptManager, expenditureManager, toleranceDays);
+        ReceiptReconciler.ReconciliationResult result = reconciler.reconcile();
+        
+        System.out.println("\nAuto-matched and validated: " + result.getAutoMatched().size());
+        for (Map.Entry<String, String> match : result.getAutoMatched().entrySet()) {
+            System.out.println("  " + match.getKey() + " -> " + match.getValue());
+        }
+        
+        Map<String, List<Expenditure>> ambiguous = result.getAmbiguous();
+        System.out.println("Needs review: " + ambiguous.size());
+        for (Map.Entry<String, List<Expenditure>> entry : ambiguous.entrySet()) {
+            System.out.println("  " + entry.getKey() + " candidates (best first):");
+            for (Expenditure exp : entry.getValue()) {
+                System.out.println("    " + exp);
+            }
+        }
+        
+        System.out.println("No candidate found: " + result.getUnmatched().size());
+    }
+    
+    private void findDuplicateReceipts() {
+        System.out.println("\n--- Duplicate Receipts ---");
+        receiptManager.refreshContentHashes();
+        List<List<String>> groups = receiptManager.findDuplicates();
+        if (groups.isEmpty()) {
+            System.out.println("No duplicate receipts found.");
+            return;
+        }
+        
+        for (List<String> group : groups) {
+            System.out.println("Possible duplicates:");
+            for (String receiptId : group) {
+                System.out.println("  " + receiptManager.getReceipt(receiptId));
+            }
+        }
+    }
+    
+    private void deleteReceipt() {
+        System.out.print("Enter receipt ID to delete: ");
+        String receiptId = scanner.nextLine();
+        
+        if (receiptManager.removeReceipt(receiptId)) {
+            System.out.println("Receipt deleted.");
+        } else {
+            System.out.println("Receipt not found.");
+        }
+    }
+    
+    private void exportAttachment() {
+        System.out.print("Enter receipt ID: ");
+        String receiptId = scanner.nextLine();
+        System.out.print("Enter destination file path: ");
+        String destination = scanner.nextLine();
+        
+        try {
+            if (receiptManager.exportAttachment(receiptId, Paths.get(destination.trim()))) {
+                System.out.println("Attachment exported to " + destination.trim());
+            } else {
+                System.out.println("No stored attachment for that receipt.");
+            }
+        } catch (InvalidPathException e) {
+            System.out.println("Invalid destination path.");
+        }
+    }
+    
+    private void cleanUpAttachments() {
+        int deleted = receiptManager.collectUnusedAttachments();
+        System.out.println("Deleted " + deleted + " unused attachment(s).");
+    }
+    
+    private void setProcessingPriority() {
+        System.out.println("Select processing order:");
+        System.out.println("1. First in, first out");
+        System.out.println("2. Largest amount first");
+        System.out.println("3. Nearest audit deadline first");
+        System.out.print("Enter choice: ");
+        
+        ReceiptPriorityPolicy policy;
+        switch (getChoice()) {
+            case 1:
+                policy = ReceiptPriorityPolicy.fifo();
+                break;
+            case 2:
+                policy = ReceiptPriorityPolicy.largestAmountFirst();
+                break;
+            case 3:
+                System.out.print("Enter audit deadline in days after the receipt date: ");
+                int slaDays = getChoice();
+                if (slaDays < 0) {
+                    System.out.println("Invalid number of days.");
+                    return;
+                }
+                policy = ReceiptPriorityPolicy.nearestDeadlineFirst(Collections.emptyMap(), slaDays);
+                break;
+            default:
+                System.out.println("Invalid choice.");
+                return;
+        }
+        
+        System.out.print("Enter aging rate (priority gained per later receipt, 0 for none): ");
+        BigDecimal agingRate = getBigDecimalInput();
+        if (agingRate.signum() < 0) {
+            System.out.println("Aging rate cannot be negative.");
+            return;
+        }
+        
+        receiptManager.setPriorityPolicy(policy, agingRate.doubleValue());
+        System.out.println("Processing order updated. " + receiptManager.getProcessingQueueSize() + " receipt(s) pending.");
+    }
+    
     private int getChoice() {
         try {
             return Integer.parseInt(scanner.nextLine());
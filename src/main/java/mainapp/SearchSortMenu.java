@@ -17,8 +17,12 @@ public class SearchSortMenu {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
     public SearchSortMenu(Scanner scanner) {
+        this(scanner, new ExpenditureManager());
+    }
+    
+    public SearchSortMenu(Scanner scanner, ExpenditureManager expenditureManager) {
         this.scanner = scanner;
-        this.expenditureManager = new ExpenditureManager();
+        this.expenditureManager = expenditureManager;
     }
     
     public void showMenu() {
@@ -115,8 +119,7 @@ public class SearchSortMenu {
         System.out.print("Enter maximum amount: ");
         BigDecimal maxAmount = getBigDecimalInput();
         
-        Expenditure[] expenditures = getExpenditureArray();
-        List<Expenditure> results = SearchSortUtils.filterByAmountRange(expenditures, minAmount, maxAmount);
+        List<Expenditure> results = SearchSortUtils.filterByAmountRange(expenditureManager.snapshot(), minAmount, maxAmount);
         
         displayResults("Expenditures between $" + minAmount + " and $" + maxAmount, results);
     }
@@ -128,8 +131,7 @@ public class SearchSortMenu {
         System.out.print("Enter end date (yyyy-MM-dd): ");
         LocalDate endDate = getDateInput();
         
-        Expenditure[] expenditures = getExpenditureArray();
-        List<Expenditure> results = SearchSortUtils.filterByDateRange(expenditures, startDate, endDate);
+        List<Expenditure> results = SearchSortUtils.filterByDateRange(expenditureManager.snapshot(), startDate, endDate);
         
         displayResults("Expenditures from " + startDate + " to " + endDate, results);
     }
@@ -138,8 +140,7 @@ public class SearchSortMenu {
         System.out.print("Enter category ID: ");
         String categoryId = scanner.nextLine();
         
-        Expenditure[] expenditures = getExpenditureArray();
-        List<Expenditure> results = SearchSortUtils.filterByCategory(expenditures, categoryId);
+        List<Expenditure> results = SearchSortUtils.filterByCategory(expenditureManager.snapshot(), categoryId);
         
         displayResults("Expenditures for Category: " + categoryId, results);
     }
@@ -148,8 +149,7 @@ public class SearchSortMenu {
         System.out.print("Enter account ID: ");
         String accountId = scanner.nextLine();
         
-        Expenditure[] expenditures = getExpenditureArray();
-        List<Expenditure> results = SearchSortUtils.filterByAccount(expenditures, accountId);
+        List<Expenditure> results = SearchSortUtils.filterByAccount(expenditureManager.snapshot(), accountId);
         
         displayResults("Expenditures for Account: " + accountId, results);
     }
@@ -224,8 +224,7 @@ public class SearchSortMenu {
             criteria.setAccountId(accountId);
         }
         
-        Expenditure[] expenditures = getExpenditureArray();
-        List<Expenditure> results = SearchSortUtils.multiFieldSearch(expenditures, criteria);
+        List<Expenditure> results = SearchSortUtils.multiFieldSearch(expenditureManager.snapshot(), criteria);
         
         displayResults("Multi-field Search Results", results);
     }
@@ -293,7 +292,7 @@ public class SearchSortMenu {
         System.out.print("Enter choice: ");
         
         int groupChoice = getChoice();
-        Expenditure[] expenditures = getExpenditureArray();
+        ExpenditureSnapshot expenditures = expenditureManager.snapshot();
         
         switch (groupChoice) {
             case 1:
@@ -335,9 +334,11 @@ public class SearchSortMenu {
         }
     }
     
+    /**
+     * Copies the current expenditures into an array for the sorts and binary searches.
+     */
     private Expenditure[] getExpenditureArray() {
-        Collection<Expenditure> expenditures = expenditureManager.getAllExpenditures();
-        return expenditures.toArray(new Expenditure[0]);
+        return expenditureManager.snapshot().toArray();
     }
     
     private int getChoice() {
@@ -0,0 +1,187 @@
+package receipts;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Hash index of receipts by (vendor, receiptNumber, amount, date) and by the
+ * content hash of the scanned file. A receipt scanned twice under different
+ * receiptIds collides on one of the two keys, so it is found in O(1) on insert.
+ */
+class DuplicateReceiptIndex {
+    private final Map<FieldKey, Set<String>> byFields;
+    private final Map<String, Set<String>> byContentHash;
+    private final Map<String, Entry> entries; // receiptId -> keys it was indexed under
+    
+    DuplicateReceiptIndex() {
+        this.byFields = new HashMap<>();
+        this.byContentHash = new HashMap<>();
+        this.entries = new HashMap<>();
+    }
+    
+    /**
+     * Finds an indexed receipt, other than this one, with the same fields or file content.
+     * Returns its ID, or null if there is none.
+     */
+    String findDuplicate(Receipt receipt, String contentHash) {
+        String match = firstOther(byFields.get(new FieldKey(receipt)), receipt.getReceiptId());
+        if (match == null && contentHash != null) {
+            match = firstOther(byContentHash.get(contentHash), receipt.getReceiptId());
+        }
+        return match;
+    }
+    
+    /**
+     * Indexes (or re-indexes) a receipt. contentHash may be null if the file is unavailable.
+     */
+    void add(Receipt receipt, String contentHash) {
+        remove(receipt.getReceiptId());
+        Entry entry = new Entry(new FieldKey(receipt), contentHash);
+        entries.put(receipt.getReceiptId(), entry);
+        byFields.computeIfAbsent(entry.fieldKey, k -> new LinkedHashSet<>()).add(receipt.getReceiptId());
+        if (contentHash != null) {
+            byContentHash.computeIfAbsent(contentHash, k -> new LinkedHashSet<>()).add(receipt.getReceiptId());
+        }
+    }
+    
+    void remove(String receiptId) {
+        Entry entry = entries.remove(receiptId);
+        if (entry != null) {
+            removeFrom(byFields, entry.fieldKey, receiptId);
+            if (entry.contentHash != null) {
+                removeFrom(byContentHash, entry.contentHash, receiptId);
+            }
+        }
+    }
+    
+    private static String firstOther(Set<String> receiptIds, String receiptId) {
+        if (receiptIds != null) {
+            for (String id : receiptIds) {
+                if (!id.equals(receiptId)) {
+                    return id;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static <K> void removeFrom(Map<K, Set<String>> index, K key, String receiptId) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(receiptId);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+    
+    /**
+     * Groups receipts sharing fields or file content, in one linear pass.
+     * Receipts linked through either key end up in the same group; only groups of two or more are returned.
+     */
+    static List<List<String>> findDuplicateGroups(Collection<Receipt> receipts, Map<String, String> contentHashes) {
+        // Union-find over receiptIds, joined whenever two receipts share a key
+        Map<String, String> parent = new HashMap<>();
+        Map<FieldKey, String> firstByFields = new HashMap<>();
+        Map<String, String> firstByHash = new HashMap<>();
+        
+        for (Receipt receipt : receipts) {
+            String id = receipt.getReceiptId();
+            parent.putIfAbsent(id, id);
+            
+            String other = firstByFields.putIfAbsent(new FieldKey(receipt), id);
+            if (other != null) {
+                union(parent, id, other);
+            }
+            String hash = contentHashes.get(id);
+            if (hash != null) {
+                other = firstByHash.putIfAbsent(hash, id);
+                if (other != null) {
+                    union(parent, id, other);
+                }
+            }
+        }
+        
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (Receipt receipt : receipts) {
+            groups.computeIfAbsent(find(parent, receipt.getReceiptId()), k -> new ArrayList<>()).add(receipt.getReceiptId());
+        }
+        
+        List<List<String>> result = new ArrayList<>();
+        for (List<String> group : groups.values()) {
+            if (group.size() > 1) {
+                result.add(group);
+            }
+        }
+        return result;
+    }
+    
+    private static String find(Map<String, String> parent, String id) {
+        String root = id;
+        while (!parent.get(root).equals(root)) {
+            root = parent.get(root);
+        }
+        // Path compression
+        while (!parent.get(id).equals(root)) {
+            String next = parent.get(id);
+            parent.put(id, root);
+            id = next;
+        }
+        return root;
+    }
+    
+    private static void union(Map<String, String> parent, String a, String b) {
+        String rootA = find(parent, a);
+        String rootB = find(parent, b);
+        if (!rootA.equals(rootB)) {
+            parent.put(rootA, rootB);
+        }
+    }
+    
+    private static class Entry {
+        private final FieldKey fieldKey;
+        private final String contentHash;
+        
+        Entry(FieldKey fieldKey, String contentHash) {
+            this.fieldKey = fieldKey;
+            this.contentHash = contentHash;
+        }
+    }
+    
+    /**
+     * Printed fields of a receipt, normalized so rescans compare equal
+     * (case-insensitive text, amounts compared by value).
+     */
+    private static class FieldKey {
+        private final String vendor;
+        private final String receiptNumber;
+        private final BigDecimal amount;
+        private final LocalDate date;
+        
+        FieldKey(Receipt receipt) {
+            this.vendor = VendorNames.normalize(receipt.getVendor());
+            this.receiptNumber = normalize(receipt.getReceiptNumber());
+            this.amount = receipt.getAmount() != null ? receipt.getAmount().stripTrailingZeros() : null;
+            this.date = receipt.getReceiptDate();
+        }
+        
+        private static String normalize(String value) {
+            return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FieldKey)) return false;
+            FieldKey other = (FieldKey) o;
+            return vendor.equals(other.vendor) && receiptNumber.equals(other.receiptNumber)
+                && Objects.equals(amount, other.amount) && Objects.equals(date, other.date);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(vendor, receiptNumber, amount, date);
+        }
+    }
+}
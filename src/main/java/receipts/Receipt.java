@@ -17,6 +17,7 @@ public class Receipt {
     private String expenditureId;
     private ReceiptStatus status;
     private String filePath; // Path to scanned receipt image/PDF
+    private String attachmentHash; // SHA-256 of the copy held in the blob store, if ingested
     
     public enum ReceiptStatus {
         PENDING, VALIDATED, REJECTED, PROCESSED
@@ -58,11 +59,15 @@ public class Receipt {
     public void setExpenditureId(String expenditureId) { this.expenditureId = expenditureId; }
     
     public ReceiptStatus getStatus() { return status; }
-    public void setStatus(ReceiptStatus status) { this.status = status; }
+    // Package-private: status changes go through ReceiptIndex.move so the status index stays current
+    void setStatus(ReceiptStatus status) { this.status = status; }
     
     public String getFilePath() { return filePath; }
     public void setFilePath(String filePath) { this.filePath = filePath; }
     
+    public String getAttachmentHash() { return attachmentHash; }
+    public void setAttachmentHash(String attachmentHash) { this.attachmentHash = attachmentHash; }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
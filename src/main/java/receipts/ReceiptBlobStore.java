@@ -0,0 +1,150 @@
+package receipts;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for receipt attachments.
+ * Each file is kept once under its SHA-256, in a shard directory named by the first
+ * two hex digits (root/ab/ab12...), so identical scans share one blob and no directory
+ * grows past a few hundred entries. Exports stream straight from the blob with
+ * FileChannel.transferTo, letting the OS copy without passing through the heap.
+ * Reference counts are held in memory and rebuilt from the receipts on load;
+ * blobs left at zero references are removed by collectGarbage.
+ */
+public class ReceiptBlobStore {
+    private static final int SHARD_PREFIX_LENGTH = 2;
+    
+    private final Path root;
+    private final ReceiptFileStore fileStore;
+    private final Map<String, Integer> refCounts; // hash -> receipts referencing the blob
+    
+    public ReceiptBlobStore(Path root, ReceiptFileStore fileStore) {
+        this.root = root;
+        this.fileStore = fileStore;
+        this.refCounts = new HashMap<>();
+    }
+    
+    /**
+     * Copies a file into the store, if not already present, and takes a reference to it.
+     * Returns the blob's hash, or null if the file could not be read or stored.
+     */
+    public synchronized String ingest(String filePath) {
+        // The cached digest only short-cuts files already stored; new content is named
+        // from the copy itself, so a file changing under us cannot be filed under a stale hash
+        String cached = fileStore.digest(filePath);
+        if (cached == null) {
+            return null;
+        }
+        if (Files.exists(blobPath(cached))) {
+            retain(cached);
+            return cached;
+        }
+        
+        String hash;
+        try {
+            Files.createDirectories(root);
+            // Copy under a temporary name first so a partial blob is never visible
+            Path temp = Files.createTempFile(root, "ingest", ".tmp");
+            try {
+                Files.copy(Paths.get(filePath.trim()), temp, StandardCopyOption.REPLACE_EXISTING);
+                hash = ReceiptFileStore.hash(temp);
+                Path blob = blobPath(hash);
+                if (!Files.exists(blob)) {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Error storing receipt file " + filePath + ": " + e.getMessage());
+            return null;
+        }
+        retain(hash);
+        return hash;
+    }
+    
+    /**
+     * Takes a reference to a blob already in the store.
+     */
+    public synchronized void retain(String hash) {
+        refCounts.merge(hash, 1, Integer::sum);
+    }
+    
+    /**
+     * Drops a reference to a blob. The blob stays on disk until the next collectGarbage.
+     */
+    public synchronized void release(String hash) {
+        refCounts.computeIfPresent(hash, (k, count) -> count > 1 ? count - 1 : null);
+    }
+    
+    public synchronized int getRefCount(String hash) {
+        return refCounts.getOrDefault(hash, 0);
+    }
+    
+    public boolean contains(String hash) {
+        return Files.isRegularFile(blobPath(hash));
+    }
+    
+    /**
+     * Streams a blob to a channel with zero-copy transfer. Returns the bytes written.
+     */
+    public long export(String hash, WritableByteChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(blobPath(hash), StandardOpenOption.READ)) {
+            long size = source.size();
+            long position = 0;
+            // transferTo may move fewer bytes than asked, so loop until the whole blob is sent
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+            return position;
+        }
+    }
+    
+    /**
+     * Writes a blob to a file, replacing it if it exists. Returns the bytes written.
+     */
+    public long export(String hash, Path destination) throws IOException {
+        try (FileChannel target = FileChannel.open(destination, StandardOpenOption.CREATE,
+                                                   StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(hash, target);
+        }
+    }
+    
+    /**
+     * Deletes every blob with no references. Returns the number of blobs deleted.
+     */
+    public synchronized int collectGarbage() {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        
+        int deleted = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(root)) {
+            for (Path shard : shards) {
+                if (!Files.isDirectory(shard)) {
+                    continue;
+                }
+                try (Stream<Path> blobs = Files.list(shard)) {
+                    for (Path blob : (Iterable<Path>) blobs::iterator) {
+                        if (!refCounts.containsKey(blob.getFileName().toString()) && Files.deleteIfExists(blob)) {
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error collecting receipt blobs: " + e.getMessage());
+        }
+        return deleted;
+    }
+    
+    private Path blobPath(String hash) {
+        return root.resolve(hash.substring(0, SHARD_PREFIX_LENGTH)).resolve(hash);
+    }
+}
@@ -0,0 +1,142 @@
+package receipts;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes SHA-256 digests of receipt attachment files.
+ * Files are read through memory-mapped windows, so contents are paged in by the OS
+ * and never copied onto the heap. Digests are cached by (path, size, mtime); a file
+ * that has not changed since it was last hashed is answered from the cache.
+ * Safe for concurrent use.
+ */
+public class ReceiptFileStore {
+    private static final long MAP_WINDOW = 64L * 1024 * 1024; // Bytes mapped at a time
+    
+    private final Map<Path, CachedDigest> cache;
+    
+    public ReceiptFileStore() {
+        this.cache = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Gets the hex SHA-256 of the file at filePath, or null if there is no readable file.
+     */
+    public String digest(String filePath) {
+        Path path = toPath(filePath);
+        if (path == null) {
+            return null;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            long size = attributes.size();
+            long modified = attributes.lastModifiedTime().toMillis();
+            
+            CachedDigest cached = cache.get(path);
+            if (cached != null && cached.size == size && cached.modified == modified) {
+                return cached.hex;
+            }
+            
+            String hex = hash(path);
+            cache.put(path, new CachedDigest(size, modified, hex));
+            return hex;
+        } catch (IOException e) {
+            System.err.println("Error hashing receipt file " + filePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Digests many files in parallel. Returns filePath -> hex digest for every readable file.
+     */
+    public Map<String, String> digestAll(Collection<String> filePaths) {
+        Map<String, String> digests = new ConcurrentHashMap<>();
+        filePaths.parallelStream()
+                 .filter(Objects::nonNull)
+                 .distinct()
+                 .forEach(filePath -> {
+                     String hex = digest(filePath);
+                     if (hex != null) {
+                         digests.put(filePath, hex);
+                     }
+                 });
+        return digests;
+    }
+    
+    /**
+     * Drops cached digests, forcing files to be hashed again.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+    
+    public int getCacheSize() {
+        return cache.size();
+    }
+    
+    private static Path toPath(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Paths.get(filePath.trim()).toAbsolutePath().normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Feeds the file to the digest one mapped window at a time, bypassing the cache.
+     */
+    static String hash(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                                      Math.min(MAP_WINDOW, size - position));
+                digest.update(window);
+            }
+        }
+        
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Required of every JVM
+        }
+    }
+    
+    private static class CachedDigest {
+        private final long size;
+        private final long modified;
+        private final String hex;
+        
+        CachedDigest(long size, long modified, String hex) {
+            this.size = size;
+            this.modified = modified;
+            this.hex = hex;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package receipts;
+
+import java.util.*;
+
+/**
+ * Secondary indexes over the receipts held by ReceiptManager: by status, in an
+ * EnumMap, and by case-folded vendor name. Lookups and per-status counts are O(1)
+ * instead of a scan. The status and vendor each receipt was indexed under are
+ * recorded, so removal finds its buckets even if the receipt was edited since.
+ */
+class ReceiptIndex {
+    private final EnumMap<Receipt.ReceiptStatus, Set<Receipt>> byStatus;
+    private final Map<String, Set<Receipt>> byVendor; // Case-folded vendor -> receipts
+    private final Map<String, Receipt.ReceiptStatus> indexedStatuses; // receiptId -> status bucket it is in
+    private final Map<String, String> indexedVendors; // receiptId -> folded vendor it is indexed under
+    
+    ReceiptIndex() {
+        this.byStatus = new EnumMap<>(Receipt.ReceiptStatus.class);
+        for (Receipt.ReceiptStatus status : Receipt.ReceiptStatus.values()) {
+            byStatus.put(status, new LinkedHashSet<>());
+        }
+        this.byVendor = new HashMap<>();
+        this.indexedStatuses = new HashMap<>();
+        this.indexedVendors = new HashMap<>();
+    }
+    
+    void add(Receipt receipt) {
+        remove(receipt);
+        String vendor = VendorNames.normalize(receipt.getVendor());
+        byStatus.get(receipt.getStatus()).add(receipt);
+        byVendor.computeIfAbsent(vendor, k -> new LinkedHashSet<>()).add(receipt);
+        indexedStatuses.put(receipt.getReceiptId(), receipt.getStatus());
+        indexedVendors.put(receipt.getReceiptId(), vendor);
+    }
+    
+    void remove(Receipt receipt) {
+        Receipt.ReceiptStatus status = indexedStatuses.remove(receipt.getReceiptId());
+        if (status != null) {
+            byStatus.get(status).remove(receipt);
+        }
+        String vendor = indexedVendors.remove(receipt.getReceiptId());
+        Set<Receipt> receipts = vendor != null ? byVendor.get(vendor) : null;
+        if (receipts != null) {
+            receipts.remove(receipt);
+            if (receipts.isEmpty()) {
+                byVendor.remove(vendor);
+            }
+        }
+    }
+    
+    /**
+     * Sets a receipt's status and moves it to the matching status bucket.
+     */
+    void move(Receipt receipt, Receipt.ReceiptStatus status) {
+        Receipt.ReceiptStatus indexed = indexedStatuses.put(receipt.getReceiptId(), status);
+        if (indexed != null) {
+            byStatus.get(indexed).remove(receipt);
+        }
+        receipt.setStatus(status);
+        byStatus.get(status).add(receipt);
+    }
+    
+    List<Receipt> withStatus(Receipt.ReceiptStatus status) {
+        return new ArrayList<>(byStatus.get(status));
+    }
+    
+    List<Receipt> withVendor(String vendor) {
+        Set<Receipt> receipts = byVendor.get(VendorNames.normalize(vendor));
+        return receipts != null ? new ArrayList<>(receipts) : new ArrayList<>();
+    }
+    
+    int count(Receipt.ReceiptStatus status) {
+        return byStatus.get(status).size();
+    }
+}
@@ -2,38 +2,209 @@ package receipts;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
- * Manages receipts using Queue for processing workflow.
- * Handles receipt validation, processing, and persistence.
+ * Manages receipts, their processing workflow and persistence.
+ * Pending receipts wait in a priority queue (FIFO by default), status and vendor
+ * lookups go through an index, attachments are stored once per content, and
+ * likely duplicates are flagged as receipts are added. The most recently
+ * processed receipts are kept in a fixed-size ring.
  */
 public class ReceiptManager {
     private Map<String, Receipt> receipts;
-    private Queue<Receipt> processingQueue;
-    private Stack<Receipt> recentlyProcessed;
+    private ReceiptQueue processingQueue; // Pending receipts by priority (FIFO by default), O(log n) poll and removal
+    private RecentReceiptBuffer recentlyProcessed; // Fixed-size ring, oldest overwritten first
+    private ReceiptIndex index; // Status and vendor lookups without scanning
+    private DuplicateReceiptIndex duplicateIndex; // Printed fields and file content -> receiptIds
+    private Map<String, String> contentHashes; // receiptId -> SHA-256 of the file at filePath
+    private ReceiptFileStore fileStore;
+    private ReceiptBlobStore blobStore; // Content-addressed copies of attachment files
+    private Map<String, String> suspectedDuplicates; // receiptId -> receipt it appears to duplicate
+    private final Path receiptsFile;
     private static final String RECEIPTS_FILE = "src/main/resources/receipts.txt";
+    private static final String ATTACHMENTS_DIR = "src/main/resources/receipt-attachments";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final int MAX_RECENT_PROCESSED = 50;
+    private static final int DEFAULT_RECENT_CAPACITY = 50;
     
     public ReceiptManager() {
+        this(DEFAULT_RECENT_CAPACITY, Paths.get(RECEIPTS_FILE), Paths.get(ATTACHMENTS_DIR));
+    }
+    
+    /**
+     * Creates a manager that keeps receipts in the given file, attachments under the given
+     * directory, and remembers the given number of recently processed receipts.
+     */
+    public ReceiptManager(int recentCapacity, Path receiptsFile, Path attachmentDirectory) {
+        this.receiptsFile = receiptsFile;
         this.receipts = new HashMap<>();
-        this.processingQueue = new LinkedList<>();
-        this.recentlyProcessed = new Stack<>();
+        this.processingQueue = new ReceiptQueue();
+        this.recentlyProcessed = new RecentReceiptBuffer(recentCapacity);
+        this.index = new ReceiptIndex();
+        this.duplicateIndex = new DuplicateReceiptIndex();
+        this.contentHashes = new HashMap<>();
+        this.fileStore = new ReceiptFileStore();
+        this.blobStore = new ReceiptBlobStore(attachmentDirectory, fileStore);
+        this.suspectedDuplicates = new LinkedHashMap<>();
         loadReceipts();
     }
     
     /**
      * Adds a new receipt to the system and queues it for processing.
+     * A receipt matching an existing one on its printed fields or file content is
+     * still added, but flagged as a suspected duplicate. The file at filePath, if any,
+     * is copied into the attachment store.
      */
     public void addReceipt(Receipt receipt) {
+        // Read the replaced receipt's hash first; it may be this same instance
+        Receipt previous = receipts.get(receipt.getReceiptId());
+        String previousHash = previous != null ? previous.getAttachmentHash() : null;
+        
+        String contentHash = blobStore.ingest(receipt.getFilePath());
+        if (contentHash != null) {
+            receipt.setAttachmentHash(contentHash);
+        } else if (receipt.getAttachmentHash() != null) {
+            contentHash = receipt.getAttachmentHash();
+            blobStore.retain(contentHash);
+        }
+        if (previous != null) {
+            index.remove(previous);
+            if (previousHash != null) {
+                blobStore.release(previousHash);
+            }
+        }
+        
+        String original = duplicateIndex.findDuplicate(receipt, contentHash);
+        if (original != null) {
+            suspectedDuplicates.put(receipt.getReceiptId(), original);
+        } else {
+            suspectedDuplicates.remove(receipt.getReceiptId());
+        }
+        indexContent(receipt, contentHash);
+        
         receipts.put(receipt.getReceiptId(), receipt);
+        index.add(receipt);
         if (receipt.getStatus() == Receipt.ReceiptStatus.PENDING) {
-            processingQueue.offer(receipt);
+            if (!processingQueue.offer(receipt)) {
+                processingQueue.reprioritize(receipt);
+            }
+        } else {
+            processingQueue.remove(receipt.getReceiptId());
+        }
+        saveReceipts();
+    }
+    
+    /**
+     * Changes how the processing queue orders pending receipts and re-orders it.
+     * agingRate is the priority a waiting receipt gains for each receipt queued after it;
+     * zero disables aging.
+     */
+    public void setPriorityPolicy(ReceiptPriorityPolicy policy, double agingRate) {
+        processingQueue.setPolicy(policy, agingRate);
+    }
+    
+    /**
+     * Re-scores a pending receipt after something its priority depends on has changed.
+     * Returns false if the receipt is not in the processing queue.
+     */
+    public boolean reprioritize(String receiptId) {
+        Receipt receipt = receipts.get(receiptId);
+        return receipt != null && processingQueue.reprioritize(receipt);
+    }
+    
+    /**
+     * Removes a receipt and drops its reference to the stored attachment.
+     * Returns true if the receipt existed.
+     */
+    public boolean removeReceipt(String receiptId) {
+        Receipt receipt = receipts.remove(receiptId);
+        if (receipt == null) {
+            return false;
+        }
+        
+        index.remove(receipt);
+        processingQueue.remove(receiptId);
+        duplicateIndex.remove(receiptId);
+        contentHashes.remove(receiptId);
+        suspectedDuplicates.remove(receiptId);
+        if (receipt.getAttachmentHash() != null) {
+            blobStore.release(receipt.getAttachmentHash());
         }
         saveReceipts();
+        return true;
+    }
+    
+    /**
+     * Copies a receipt's stored attachment to a file. Returns false if it has none.
+     */
+    public boolean exportAttachment(String receiptId, Path destination) {
+        Receipt receipt = receipts.get(receiptId);
+        if (receipt == null || receipt.getAttachmentHash() == null || !blobStore.contains(receipt.getAttachmentHash())) {
+            return false;
+        }
+        try {
+            blobStore.export(receipt.getAttachmentHash(), destination);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error exporting attachment for receipt " + receiptId + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Deletes stored attachments no receipt refers to. Returns the number deleted.
+     */
+    public int collectUnusedAttachments() {
+        return blobStore.collectGarbage();
+    }
+    
+    /**
+     * Gets the ID of the receipt this one was flagged as duplicating when added, or null.
+     */
+    public String getDuplicateOf(String receiptId) {
+        return suspectedDuplicates.get(receiptId);
+    }
+    
+    /**
+     * Gets receipts flagged as suspected duplicates when added (receiptId -> original receiptId).
+     */
+    public Map<String, String> getSuspectedDuplicates() {
+        return Collections.unmodifiableMap(suspectedDuplicates);
+    }
+    
+    /**
+     * Finds groups of receipts across the whole store that share printed fields or file content.
+     * Runs in linear time over the receipts using the content hashes already computed;
+     * call refreshContentHashes first if files may have changed on disk.
+     */
+    public List<List<String>> findDuplicates() {
+        return DuplicateReceiptIndex.findDuplicateGroups(receipts.values(), contentHashes);
+    }
+    
+    /**
+     * Re-hashes every receipt file in parallel and re-indexes the store.
+     * Receipts with a stored attachment are indexed by its hash, since blobs never change;
+     * other files unchanged since they were last hashed are answered from the digest cache.
+     */
+    public void refreshContentHashes() {
+        List<String> filePaths = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts.values()) {
+            if (receipt.getAttachmentHash() == null) {
+                filePaths.add(receipt.getFilePath());
+            }
+        }
+        Map<String, String> digests = fileStore.digestAll(filePaths);
+        for (Receipt receipt : receipts.values()) {
+            String contentHash = receipt.getAttachmentHash();
+            if (contentHash == null && receipt.getFilePath() != null) {
+                contentHash = digests.get(receipt.getFilePath());
+            }
+            indexContent(receipt, contentHash);
+        }
     }
     
     /**
@@ -51,30 +222,62 @@ public class ReceiptManager {
     }
     
     /**
-     * Gets the next receipt from the processing queue.
+     * Gets the most urgent receipt from the processing queue.
      */
     public Receipt getNextReceiptToProcess() {
         return processingQueue.poll();
     }
     
+    /**
+     * Removes up to max receipts from the processing queue, most urgent first.
+     */
+    public List<Receipt> pollPending(int max) {
+        List<Receipt> batch = new ArrayList<>(Math.min(max, processingQueue.size()));
+        while (batch.size() < max) {
+            Receipt receipt = processingQueue.poll();
+            if (receipt == null) {
+                break;
+            }
+            batch.add(receipt);
+        }
+        return batch;
+    }
+    
+    /**
+     * Applies a batch of status changes and saves once.
+     * Receipts still PENDING are queued again as if newly added.
+     */
+    public void commitStatuses(Map<String, Receipt.ReceiptStatus> statuses) {
+        for (Map.Entry<String, Receipt.ReceiptStatus> entry : statuses.entrySet()) {
+            Receipt receipt = receipts.get(entry.getKey());
+            if (receipt == null) {
+                continue;
+            }
+            
+            index.move(receipt, entry.getValue());
+            if (entry.getValue() == Receipt.ReceiptStatus.PENDING) {
+                processingQueue.offer(receipt);
+            } else {
+                processingQueue.remove(receipt.getReceiptId());
+                recentlyProcessed.record(receipt);
+            }
+        }
+        saveReceipts();
+    }
+    
     /**
      * Processes a receipt and updates its status.
      */
     public void processReceipt(String receiptId, Receipt.ReceiptStatus newStatus) {
         Receipt receipt = receipts.get(receiptId);
         if (receipt != null) {
-            receipt.setStatus(newStatus);
+            index.move(receipt, newStatus);
             
             // Remove from processing queue if it's there
-            processingQueue.remove(receipt);
+            processingQueue.remove(receiptId);
             
-            // Add to recently processed stack
-            recentlyProcessed.push(receipt);
-            
-            // Maintain stack size limit
-            if (recentlyProcessed.size() > MAX_RECENT_PROCESSED) {
-                recentlyProcessed.removeElementAt(0);
-            }
+            // Add to recently processed (the ring drops the oldest once full)
+            recentlyProcessed.record(receipt);
             
             saveReceipts();
         }
@@ -87,24 +290,46 @@ public class ReceiptManager {
         Receipt receipt = receipts.get(receiptId);
         if (receipt != null) {
             receipt.setExpenditureId(expenditureId);
-            receipt.setStatus(Receipt.ReceiptStatus.VALIDATED);
-            processingQueue.remove(receipt);
-            recentlyProcessed.push(receipt);
+            index.move(receipt, Receipt.ReceiptStatus.VALIDATED);
+            processingQueue.remove(receiptId);
+            recentlyProcessed.record(receipt);
             saveReceipts();
             return true;
         }
         return false;
     }
     
+    /**
+     * Links and validates a batch of receipts (receiptId -> expenditureId) and saves once.
+     * Returns the number of receipts validated.
+     */
+    public int validateReceipts(Map<String, String> matches) {
+        int validated = 0;
+        for (Map.Entry<String, String> match : matches.entrySet()) {
+            Receipt receipt = receipts.get(match.getKey());
+            if (receipt != null) {
+                receipt.setExpenditureId(match.getValue());
+                index.move(receipt, Receipt.ReceiptStatus.VALIDATED);
+                processingQueue.remove(receipt.getReceiptId());
+                recentlyProcessed.record(receipt);
+                validated++;
+            }
+        }
+        if (validated > 0) {
+            saveReceipts();
+        }
+        return validated;
+    }
+    
     /**
      * Rejects a receipt with a reason.
      */
     public void rejectReceipt(String receiptId) {
         Receipt receipt = receipts.get(receiptId);
         if (receipt != null) {
-            receipt.setStatus(Receipt.ReceiptStatus.REJECTED);
-            processingQueue.remove(receipt);
-            recentlyProcessed.push(receipt);
+            index.move(receipt, Receipt.ReceiptStatus.REJECTED);
+            processingQueue.remove(receiptId);
+            recentlyProcessed.record(receipt);
             saveReceipts();
         }
     }
@@ -113,26 +338,32 @@ public class ReceiptManager {
      * Gets receipts by status.
      */
     public List<Receipt> getReceiptsByStatus(Receipt.ReceiptStatus status) {
-        List<Receipt> result = new ArrayList<>();
-        for (Receipt receipt : receipts.values()) {
-            if (receipt.getStatus() == status) {
-                result.add(receipt);
-            }
+        return index.withStatus(status);
+    }
+    
+    /**
+     * Gets the number of receipts with a status in O(1).
+     */
+    public int getReceiptCount(Receipt.ReceiptStatus status) {
+        return index.count(status);
+    }
+    
+    /**
+     * Gets the number of receipts in every status, including those with none.
+     */
+    public Map<Receipt.ReceiptStatus, Integer> getReceiptCountsByStatus() {
+        Map<Receipt.ReceiptStatus, Integer> counts = new EnumMap<>(Receipt.ReceiptStatus.class);
+        for (Receipt.ReceiptStatus status : Receipt.ReceiptStatus.values()) {
+            counts.put(status, index.count(status));
         }
-        return result;
+        return counts;
     }
     
     /**
-     * Gets receipts by vendor.
+     * Gets receipts by vendor (case-insensitive).
      */
     public List<Receipt> getReceiptsByVendor(String vendor) {
-        List<Receipt> result = new ArrayList<>();
-        for (Receipt receipt : receipts.values()) {
-            if (vendor.equalsIgnoreCase(receipt.getVendor())) {
-                result.add(receipt);
-            }
-        }
-        return result;
+        return index.withVendor(vendor);
     }
     
     /**
@@ -143,30 +374,44 @@ public class ReceiptManager {
     }
     
     /**
-     * Gets recently processed receipts.
+     * Gets recently processed receipts (oldest first).
      */
     public List<Receipt> getRecentlyProcessed() {
-        return new ArrayList<>(recentlyProcessed);
+        return recentlyProcessed.toList();
+    }
+    
+    /**
+     * Iterates recently processed receipts (oldest first) without copying them.
+     */
+    public Iterable<Receipt> recentlyProcessed() {
+        return recentlyProcessed;
     }
     
     /**
-     * Gets pending receipts (in queue).
+     * Gets pending receipts in the order they will be processed.
      */
     public List<Receipt> getPendingReceipts() {
-        return new ArrayList<>(processingQueue);
+        return processingQueue.toList();
     }
     
     /**
      * Loads receipts from file.
      */
     private void loadReceipts() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(RECEIPTS_FILE))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(receiptsFile.toFile()))) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (!line.trim().isEmpty()) {
                     Receipt receipt = parseReceipt(line);
                     if (receipt != null) {
-                        receipts.put(receipt.getReceiptId(), receipt);
+                        Receipt previous = receipts.put(receipt.getReceiptId(), receipt);
+                        if (previous != null) {
+                            index.remove(previous);
+                        }
+                        index.add(receipt);
+                        if (receipt.getAttachmentHash() != null) {
+                            blobStore.retain(receipt.getAttachmentHash());
+                        }
                         if (receipt.getStatus() == Receipt.ReceiptStatus.PENDING) {
                             processingQueue.offer(receipt);
                         }
@@ -176,13 +421,23 @@ public class ReceiptManager {
         } catch (IOException e) {
             System.err.println("Error loading receipts: " + e.getMessage());
         }
+        refreshContentHashes();
+    }
+    
+    private void indexContent(Receipt receipt, String contentHash) {
+        duplicateIndex.add(receipt, contentHash);
+        if (contentHash != null) {
+            contentHashes.put(receipt.getReceiptId(), contentHash);
+        } else {
+            contentHashes.remove(receipt.getReceiptId());
+        }
     }
     
     /**
      * Saves receipts to file.
      */
     private void saveReceipts() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(RECEIPTS_FILE))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(receiptsFile.toFile()))) {
             for (Receipt receipt : receipts.values()) {
                 writer.println(formatReceipt(receipt));
             }
@@ -193,7 +448,7 @@ public class ReceiptManager {
     
     /**
      * Parses a line from the file into a Receipt object.
-     * Format: receiptId,receiptNumber,receiptDate,amount,vendor,description,expenditureId,status,filePath
+     * Format: receiptId,receiptNumber,receiptDate,amount,vendor,description,expenditureId,status,filePath[,attachmentHash]
      */
     private Receipt parseReceipt(String line) {
         try {
@@ -214,7 +469,11 @@ public class ReceiptManager {
                     expenditureId = null;
                 }
                 
-                return new Receipt(receiptId, receiptNumber, receiptDate, amount, vendor, description, expenditureId, status, filePath);
+                Receipt receipt = new Receipt(receiptId, receiptNumber, receiptDate, amount, vendor, description, expenditureId, status, filePath);
+                if (parts.length >= 10 && !parts[9].trim().isEmpty()) {
+                    receipt.setAttachmentHash(parts[9].trim());
+                }
+                return receipt;
             }
         } catch (Exception e) {
             System.err.println("Error parsing receipt line: " + line);
@@ -227,7 +486,8 @@ public class ReceiptManager {
      */
     private String formatReceipt(Receipt receipt) {
         String expenditureId = receipt.getExpenditureId() != null ? receipt.getExpenditureId() : "";
-        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s",
+        String attachmentHash = receipt.getAttachmentHash() != null ? receipt.getAttachmentHash() : "";
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
                            receipt.getReceiptId(),
                            receipt.getReceiptNumber(),
                            receipt.getReceiptDate().format(DATE_FORMAT),
@@ -236,6 +496,7 @@ public class ReceiptManager {
                            receipt.getDescription(),
                            expenditureId,
                            receipt.getStatus().name(),
-                           receipt.getFilePath());
+                           receipt.getFilePath(),
+                           attachmentHash);
     }
 }
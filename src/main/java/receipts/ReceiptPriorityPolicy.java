@@ -0,0 +1,45 @@
+package receipts;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides how urgently a pending receipt should be processed. Higher scores are polled first;
+ * receipts with equal scores keep FIFO order.
+ */
+public interface ReceiptPriorityPolicy {
+    
+    /**
+     * Scores a receipt when it is queued or reprioritized.
+     */
+    double priority(Receipt receipt);
+    
+    /**
+     * Every receipt scores the same, so the queue is strict FIFO.
+     */
+    static ReceiptPriorityPolicy fifo() {
+        return receipt -> 0;
+    }
+    
+    /**
+     * Larger amounts first.
+     */
+    static ReceiptPriorityPolicy largestAmountFirst() {
+        return receipt -> receipt.getAmount() != null ? receipt.getAmount().doubleValue() : 0;
+    }
+    
+    /**
+     * Earliest audit deadline first, where the deadline is the receipt date plus the
+     * vendor's SLA in days (vendor names compared case-insensitively).
+     */
+    static ReceiptPriorityPolicy nearestDeadlineFirst(Map<String, Integer> vendorSlaDays, int defaultSlaDays) {
+        Map<String, Integer> slaDays = new HashMap<>();
+        vendorSlaDays.forEach((vendor, days) -> slaDays.put(VendorNames.normalize(vendor), days));
+        return receipt -> {
+            String vendor = VendorNames.normalize(receipt.getVendor());
+            LocalDate deadline = receipt.getReceiptDate().plusDays(slaDays.getOrDefault(vendor, defaultSlaDays));
+            return -deadline.toEpochDay();
+        };
+    }
+}
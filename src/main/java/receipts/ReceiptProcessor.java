@@ -0,0 +1,232 @@
+package receipts;
+
+import expenditures.Expenditure;
+import expenditures.ExpenditureManager;
+import expenditures.ExpenditureSnapshot;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Drains the receipt processing queue with a pool of worker threads.
+ * Each pending receipt that is linked to an expenditure is checked for an existing
+ * file at filePath and for amount, vendor and date agreement with the expenditure.
+ * Workers only read; outcomes are committed by the calling thread one batch at a
+ * time, so the receipts file is written once per batch rather than once per receipt.
+ * Receipts with no linked expenditure are left pending for manual matching.
+ */
+public class ReceiptProcessor implements AutoCloseable {
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_DATE_TOLERANCE_DAYS = 3; // Card postings often lag the receipt date
+    
+    private final ReceiptManager receiptManager;
+    private final ExpenditureManager expenditureManager;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int batchSize;
+    private final int dateToleranceDays;
+    
+    /**
+     * Creates a processor with one worker thread per available processor.
+     */
+    public ReceiptProcessor(ReceiptManager receiptManager, ExpenditureManager expenditureManager) {
+        this(receiptManager, expenditureManager,
+             Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()), true,
+             DEFAULT_BATCH_SIZE, DEFAULT_DATE_TOLERANCE_DAYS);
+    }
+    
+    /**
+     * Creates a processor on a caller-supplied executor, which the caller shuts down.
+     */
+    public ReceiptProcessor(ReceiptManager receiptManager, ExpenditureManager expenditureManager,
+                            ExecutorService executor, int batchSize, int dateToleranceDays) {
+        this(receiptManager, expenditureManager, executor, false, batchSize, dateToleranceDays);
+    }
+    
+    private ReceiptProcessor(ReceiptManager receiptManager, ExpenditureManager expenditureManager,
+                             ExecutorService executor, boolean ownsExecutor, int batchSize, int dateToleranceDays) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.receiptManager = receiptManager;
+        this.expenditureManager = expenditureManager;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.batchSize = batchSize;
+        this.dateToleranceDays = dateToleranceDays;
+    }
+    
+    /**
+     * Validates every receipt pending when the call starts and commits the outcomes.
+     * Receipts left pending are queued again only once the run ends, so however the queue
+     * is prioritized they are not retried in this run.
+     */
+    public ProcessingResult processPending() {
+        ExpenditureSnapshot expenditures = expenditureManager.snapshot();
+        ProcessingResult result = new ProcessingResult();
+        int remaining = receiptManager.getProcessingQueueSize();
+        Map<String, Receipt.ReceiptStatus> stillPending = new LinkedHashMap<>();
+        List<Receipt> batch = Collections.emptyList(); // Polled but not yet committed
+        
+        try {
+            while (remaining > 0) {
+                batch = receiptManager.pollPending(Math.min(batchSize, remaining));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                remaining -= batch.size();
+                
+                List<Future<Outcome>> futures = new ArrayList<>(batch.size());
+                for (Receipt receipt : batch) {
+                    futures.add(executor.submit(() -> check(receipt, expenditures)));
+                }
+                
+                Map<String, Receipt.ReceiptStatus> statuses = new LinkedHashMap<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    Receipt receipt = batch.get(i);
+                    Outcome outcome = await(futures.get(i), receipt);
+                    if (outcome.status == Receipt.ReceiptStatus.PENDING) {
+                        stillPending.put(receipt.getReceiptId(), outcome.status);
+                    } else {
+                        statuses.put(receipt.getReceiptId(), outcome.status);
+                    }
+                    result.record(receipt, outcome);
+                }
+                receiptManager.commitStatuses(statuses);
+                batch = Collections.emptyList();
+            }
+        } finally {
+            // If the run failed part-way, receipts polled but not committed go back on the queue too
+            for (Receipt receipt : batch) {
+                if (receipt.getStatus() == Receipt.ReceiptStatus.PENDING) {
+                    stillPending.putIfAbsent(receipt.getReceiptId(), Receipt.ReceiptStatus.PENDING);
+                }
+            }
+            receiptManager.commitStatuses(stillPending);
+        }
+        return result;
+    }
+    
+    private Outcome await(Future<Outcome> future, Receipt receipt) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.pending("Interrupted");
+        } catch (ExecutionException e) {
+            System.err.println("Error validating receipt " + receipt.getReceiptId() + ": " + e.getCause());
+            return Outcome.pending("Validation failed: " + e.getCause());
+        }
+    }
+    
+    /**
+     * Checks one receipt against its linked expenditure. Runs on a worker thread and only reads.
+     */
+    private Outcome check(Receipt receipt, ExpenditureSnapshot expenditures) {
+        String expenditureId = receipt.getExpenditureId();
+        if (expenditureId == null || expenditureId.isEmpty()) {
+            return Outcome.pending("No linked expenditure");
+        }
+        
+        Expenditure expenditure = expenditures.getExpenditure(expenditureId);
+        if (expenditure == null) {
+            return Outcome.rejected("Linked expenditure " + expenditureId + " not found");
+        }
+        if (!fileExists(receipt.getFilePath())) {
+            return Outcome.rejected("Receipt file not found: " + receipt.getFilePath());
+        }
+        if (receipt.getAmount().compareTo(expenditure.getAmount()) != 0) {
+            return Outcome.rejected("Amount " + receipt.getAmount() + " does not match " + expenditure.getAmount());
+        }
+        if (!VendorNames.normalize(receipt.getVendor()).equals(VendorNames.normalize(expenditure.getVendor()))) {
+            return Outcome.rejected("Vendor '" + receipt.getVendor() + "' does not match '" + expenditure.getVendor() + "'");
+        }
+        if (!withinTolerance(receipt.getReceiptDate(), expenditure.getDate())) {
+            return Outcome.rejected("Date " + receipt.getReceiptDate() + " is not within " + dateToleranceDays +
+                                    " days of " + expenditure.getDate());
+        }
+        return Outcome.validated();
+    }
+    
+    private static boolean fileExists(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return false;
+        }
+        try {
+            return Files.isRegularFile(Paths.get(filePath.trim()));
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+    
+    private boolean withinTolerance(LocalDate receiptDate, LocalDate expenditureDate) {
+        return Math.abs(ChronoUnit.DAYS.between(receiptDate, expenditureDate)) <= dateToleranceDays;
+    }
+    
+    /**
+     * Shuts down the worker pool if this processor created it.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Status chosen for one receipt and, unless validated, why.
+     */
+    private static class Outcome {
+        private final Receipt.ReceiptStatus status;
+        private final String reason;
+        
+        private Outcome(Receipt.ReceiptStatus status, String reason) {
+            this.status = status;
+            this.reason = reason;
+        }
+        
+        static Outcome validated() { return new Outcome(Receipt.ReceiptStatus.VALIDATED, null); }
+        static Outcome rejected(String reason) { return new Outcome(Receipt.ReceiptStatus.REJECTED, reason); }
+        static Outcome pending(String reason) { return new Outcome(Receipt.ReceiptStatus.PENDING, reason); }
+    }
+    
+    /**
+     * Counts of receipts validated, rejected and left pending in one run, with reasons.
+     */
+    public static class ProcessingResult {
+        private int validatedCount;
+        private int rejectedCount;
+        private int pendingCount;
+        private final Map<String, String> reasons = new LinkedHashMap<>(); // receiptId -> why not validated
+        
+        private void record(Receipt receipt, Outcome outcome) {
+            switch (outcome.status) {
+                case VALIDATED:
+                    validatedCount++;
+                    break;
+                case REJECTED:
+                    rejectedCount++;
+                    reasons.put(receipt.getReceiptId(), outcome.reason);
+                    break;
+                default:
+                    pendingCount++;
+                    reasons.put(receipt.getReceiptId(), outcome.reason);
+            }
+        }
+        
+        public int getValidatedCount() { return validatedCount; }
+        public int getRejectedCount() { return rejectedCount; }
+        public int getPendingCount() { return pendingCount; }
+        public Map<String, String> getReasons() { return Collections.unmodifiableMap(reasons); }
+        
+        @Override
+        public String toString() {
+            return String.format("ProcessingResult{validated=%d, rejected=%d, pending=%d}",
+                               validatedCount, rejectedCount, pendingCount);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package receipts;
+
+import java.util.*;
+
+/**
+ * Priority queue of pending receipts keyed by receiptId.
+ * An indexed binary max heap ordered by a pluggable ReceiptPriorityPolicy, with a
+ * position map so membership is O(1) and poll, removal by ID and reprioritization
+ * are O(log n). Ties are broken by enqueue order, so the default FIFO policy behaves
+ * exactly like a plain queue.
+ * Aging: a receipt's effective priority grows by agingRate for every receipt queued
+ * after it. Since every waiting receipt ages at the same rate, ordering by
+ * priority - agingRate * enqueueTick is equivalent and never needs a re-sort, while a
+ * low-priority receipt still comes to outrank everything queued well after it.
+ */
+class ReceiptQueue {
+    private final List<Entry> heap;
+    private final Map<String, Integer> positions; // receiptId -> index in heap
+    private ReceiptPriorityPolicy policy;
+    private double agingRate;
+    private long ticks; // Receipts ever queued; the enqueue tick of the next one
+    
+    ReceiptQueue() {
+        this(ReceiptPriorityPolicy.fifo(), 0);
+    }
+    
+    ReceiptQueue(ReceiptPriorityPolicy policy, double agingRate) {
+        this.heap = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.policy = policy;
+        this.agingRate = agingRate;
+    }
+    
+    /**
+     * Adds a receipt. A receipt already queued keeps its place. Returns true if added.
+     */
+    boolean offer(Receipt receipt) {
+        if (positions.containsKey(receipt.getReceiptId())) {
+            return false;
+        }
+        heap.add(new Entry(receipt, ticks++));
+        int last = heap.size() - 1;
+        score(heap.get(last));
+        place(heap.get(last), last);
+        siftUp(last);
+        return true;
+    }
+    
+    /**
+     * Removes and returns the most urgent receipt, or null if empty.
+     */
+    Receipt poll() {
+        return heap.isEmpty() ? null : remove(heap.get(0).receipt.getReceiptId());
+    }
+    
+    Receipt peek() {
+        return heap.isEmpty() ? null : heap.get(0).receipt;
+    }
+    
+    /**
+     * Removes a receipt by ID. Returns the removed receipt, or null if it was not queued.
+     */
+    Receipt remove(String receiptId) {
+        Integer position = positions.remove(receiptId);
+        if (position == null) {
+            return null;
+        }
+        
+        Entry removed = heap.get(position);
+        Entry last = heap.remove(heap.size() - 1);
+        if (position < heap.size()) {
+            place(last, position);
+            siftUp(position);
+            siftDown(positions.get(last.receipt.getReceiptId()));
+        }
+        return removed.receipt;
+    }
+    
+    /**
+     * Re-scores a queued receipt, keeping its enqueue tick, and restores heap order.
+     * Returns false if the receipt is not queued.
+     */
+    boolean reprioritize(Receipt receipt) {
+        Integer position = positions.get(receipt.getReceiptId());
+        if (position == null) {
+            return false;
+        }
+        
+        Entry entry = heap.get(position);
+        entry.receipt = receipt;
+        score(entry);
+        siftUp(position);
+        siftDown(positions.get(receipt.getReceiptId()));
+        return true;
+    }
+    
+    /**
+     * Switches policy and aging rate and rebuilds the heap in O(n).
+     * Receipts keep their enqueue ticks.
+     */
+    void setPolicy(ReceiptPriorityPolicy policy, double agingRate) {
+        this.policy = policy;
+        this.agingRate = agingRate;
+        for (Entry entry : heap) {
+            score(entry);
+        }
+        for (int i = heap.size() / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+    
+    boolean contains(String receiptId) {
+        return positions.containsKey(receiptId);
+    }
+    
+    int size() {
+        return heap.size();
+    }
+    
+    boolean isEmpty() {
+        return heap.isEmpty();
+    }
+    
+    /**
+     * Returns the queued receipts in the order they would be polled.
+     */
+    List<Receipt> toList() {
+        List<Entry> ordered = new ArrayList<>(heap);
+        ordered.sort(ReceiptQueue::compare);
+        List<Receipt> result = new ArrayList<>(ordered.size());
+        for (Entry entry : ordered) {
+            result.add(entry.receipt);
+        }
+        return result;
+    }
+    
+    private void score(Entry entry) {
+        entry.key = policy.priority(entry.receipt) - agingRate * entry.tick;
+    }
+    
+    private void siftUp(int index) {
+        Entry entry = heap.get(index);
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            Entry parentEntry = heap.get(parent);
+            if (compare(entry, parentEntry) >= 0) {
+                break;
+            }
+            place(parentEntry, index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+    
+    private void siftDown(int index) {
+        Entry entry = heap.get(index);
+        int size = heap.size();
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compare(heap.get(child + 1), heap.get(child)) < 0) {
+                child++;
+            }
+            Entry childEntry = heap.get(child);
+            if (compare(childEntry, entry) >= 0) {
+                break;
+            }
+            place(childEntry, index);
+            index = child;
+        }
+        place(entry, index);
+    }
+    
+    private void place(Entry entry, int index) {
+        heap.set(index, entry);
+        positions.put(entry.receipt.getReceiptId(), index);
+    }
+    
+    /**
+     * Orders by effective priority, highest first, then by enqueue tick, earliest first.
+     */
+    private static int compare(Entry a, Entry b) {
+        int byKey = Double.compare(b.key, a.key);
+        return byKey != 0 ? byKey : Long.compare(a.tick, b.tick);
+    }
+    
+    private static class Entry {
+        private Receipt receipt;
+        private final long tick;
+        private double key; // Effective priority the entry is currently ordered by
+        
+        Entry(Receipt receipt, long tick) {
+            this.receipt = receipt;
+            this.tick = tick;
+        }
+    }
+}
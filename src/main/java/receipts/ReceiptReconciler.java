@@ -0,0 +1,187 @@
+package receipts;
+
+import expenditures.Expenditure;
+import expenditures.ExpenditureManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Matches unlinked receipts to expenditures with a hash join on (vendor, amount).
+ * Expenditures are hashed once by key, each bucket sorted by date, and every
+ * receipt probes its bucket and binary-searches the date window, so the cost is
+ * O(E log E + R log E) rather than R x E. Candidates are ranked by date distance;
+ * a receipt whose only candidate is claimed by no other receipt is unambiguous
+ * and can be validated automatically.
+ */
+public class ReceiptReconciler {
+    private final ReceiptManager receiptManager;
+    private final ExpenditureManager expenditureManager;
+    private final int dateToleranceDays;
+    
+    public ReceiptReconciler(ReceiptManager receiptManager, ExpenditureManager expenditureManager, int dateToleranceDays) {
+        this.receiptManager = receiptManager;
+        this.expenditureManager = expenditureManager;
+        this.dateToleranceDays = dateToleranceDays;
+    }
+    
+    /**
+     * Finds candidate matches for all unlinked pending receipts without changing anything.
+     */
+    public ReconciliationResult findMatches() {
+        return match(receiptManager.getAllReceipts(), expenditureManager.snapshot(), dateToleranceDays);
+    }
+    
+    /**
+     * Finds candidate matches and validates every unambiguous one in a single save.
+     */
+    public ReconciliationResult reconcile() {
+        ReconciliationResult result = findMatches();
+        receiptManager.validateReceipts(result.getAutoMatched());
+        return result;
+    }
+    
+    /**
+     * Joins unlinked pending receipts against expenditures not already linked to a receipt.
+     */
+    public static ReconciliationResult match(Collection<Receipt> receipts, Iterable<Expenditure> expenditures, int dateToleranceDays) {
+        Set<String> linkedExpenditureIds = new HashSet<>();
+        List<Receipt> unlinked = new ArrayList<>();
+        for (Receipt receipt : receipts) {
+            if (receipt.getExpenditureId() != null && !receipt.getExpenditureId().isEmpty()) {
+                linkedExpenditureIds.add(receipt.getExpenditureId());
+            } else if (receipt.getStatus() == Receipt.ReceiptStatus.PENDING) {
+                unlinked.add(receipt);
+            }
+        }
+        
+        // Build side: bucket free expenditures by (vendor, amount), then order each bucket by date
+        Map<MatchKey, List<Expenditure>> buckets = new HashMap<>();
+        for (Expenditure exp : expenditures) {
+            if (!linkedExpenditureIds.contains(exp.getExpenditureId())) {
+                buckets.computeIfAbsent(new MatchKey(exp.getVendor(), exp.getAmount()), k -> new ArrayList<>()).add(exp);
+            }
+        }
+        for (List<Expenditure> bucket : buckets.values()) {
+            bucket.sort(Comparator.comparing(Expenditure::getDate));
+        }
+        
+        // Probe side: each receipt looks up its bucket and takes the date window
+        Map<String, List<Expenditure>> candidates = new LinkedHashMap<>();
+        Map<String, Integer> claims = new HashMap<>(); // expenditureId -> receipts listing it
+        List<String> unmatched = new ArrayList<>();
+        for (Receipt receipt : unlinked) {
+            List<Expenditure> bucket = buckets.get(new MatchKey(receipt.getVendor(), receipt.getAmount()));
+            List<Expenditure> ranked = bucket != null ? window(bucket, receipt.getReceiptDate(), dateToleranceDays)
+                                                      : new ArrayList<>();
+            if (ranked.isEmpty()) {
+                unmatched.add(receipt.getReceiptId());
+                continue;
+            }
+            
+            LocalDate date = receipt.getReceiptDate();
+            ranked.sort(Comparator.comparingLong((Expenditure exp) -> Math.abs(ChronoUnit.DAYS.between(date, exp.getDate())))
+                                  .thenComparing(Expenditure::getExpenditureId));
+            candidates.put(receipt.getReceiptId(), ranked);
+            for (Expenditure exp : ranked) {
+                claims.merge(exp.getExpenditureId(), 1, Integer::sum);
+            }
+        }
+        
+        Map<String, String> autoMatched = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Expenditure>> entry : candidates.entrySet()) {
+            List<Expenditure> ranked = entry.getValue();
+            if (ranked.size() == 1 && claims.get(ranked.get(0).getExpenditureId()) == 1) {
+                autoMatched.put(entry.getKey(), ranked.get(0).getExpenditureId());
+            }
+        }
+        
+        return new ReconciliationResult(candidates, autoMatched, unmatched);
+    }
+    
+    /**
+     * Returns the expenditures in a date-sorted bucket within the tolerance of a date.
+     */
+    private static List<Expenditure> window(List<Expenditure> bucket, LocalDate date, int dateToleranceDays) {
+        LocalDate from = date.minusDays(dateToleranceDays);
+        LocalDate to = date.plusDays(dateToleranceDays);
+        
+        int low = 0;
+        int high = bucket.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucket.get(mid).getDate().isBefore(from)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        
+        List<Expenditure> result = new ArrayList<>();
+        for (int i = low; i < bucket.size() && !bucket.get(i).getDate().isAfter(to); i++) {
+            result.add(bucket.get(i));
+        }
+        return result;
+    }
+    
+    /**
+     * Join key: vendor compared case-insensitively, amount compared by value (10.5 equals 10.50).
+     */
+    private static class MatchKey {
+        private final String vendor;
+        private final BigDecimal amount;
+        
+        MatchKey(String vendor, BigDecimal amount) {
+            this.vendor = VendorNames.normalize(vendor);
+            this.amount = amount.stripTrailingZeros();
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MatchKey)) return false;
+            MatchKey other = (MatchKey) o;
+            return vendor.equals(other.vendor) && amount.equals(other.amount);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(vendor, amount);
+        }
+    }
+    
+    /**
+     * Outcome of a reconciliation run.
+     */
+    public static class ReconciliationResult {
+        private final Map<String, List<Expenditure>> candidates; // receiptId -> ranked candidates
+        private final Map<String, String> autoMatched;            // receiptId -> expenditureId
+        private final List<String> unmatched;                     // receiptIds with no candidate
+        
+        ReconciliationResult(Map<String, List<Expenditure>> candidates, Map<String, String> autoMatched, List<String> unmatched) {
+            this.candidates = candidates;
+            this.autoMatched = autoMatched;
+            this.unmatched = unmatched;
+        }
+        
+        public Map<String, List<Expenditure>> getCandidates() { return Collections.unmodifiableMap(candidates); }
+        public Map<String, String> getAutoMatched() { return Collections.unmodifiableMap(autoMatched); }
+        public List<String> getUnmatched() { return Collections.unmodifiableList(unmatched); }
+        
+        /**
+         * Gets receipts that have candidates but were not matched automatically.
+         */
+        public Map<String, List<Expenditure>> getAmbiguous() {
+            Map<String, List<Expenditure>> ambiguous = new LinkedHashMap<>(candidates);
+            ambiguous.keySet().removeAll(autoMatched.keySet());
+            return ambiguous;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("ReconciliationResult{autoMatched=%d, ambiguous=%d, unmatched=%d}",
+                               autoMatched.size(), candidates.size() - autoMatched.size(), unmatched.size());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package receipts;
+
+import java.util.*;
+
+/**
+ * Fixed-capacity ring buffer of the most recently processed receipts.
+ * Recording overwrites the oldest slot in place, so it never shifts or allocates.
+ * Designed for a single writer: the writer fills a slot and then publishes it
+ * through a volatile counter, so readers can iterate without locking or copying.
+ * A reader racing the writer may see a slot that was overwritten after it started.
+ */
+class RecentReceiptBuffer implements Iterable<Receipt> {
+    private final Receipt[] slots;
+    private volatile long written; // Total receipts ever recorded
+    
+    RecentReceiptBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.slots = new Receipt[capacity];
+    }
+    
+    /**
+     * Records a receipt, evicting the oldest if the buffer is full. Single writer only.
+     */
+    void record(Receipt receipt) {
+        long next = written;
+        slots[(int) (next % slots.length)] = receipt;
+        written = next + 1;
+    }
+    
+    int size() {
+        return (int) Math.min(written, slots.length);
+    }
+    
+    int capacity() {
+        return slots.length;
+    }
+    
+    /**
+     * Iterates the buffered receipts oldest first, as of the moment iteration starts.
+     */
+    @Override
+    public Iterator<Receipt> iterator() {
+        long end = written;
+        long start = Math.max(0, end - slots.length);
+        return new Iterator<Receipt>() {
+            private long position = start;
+            
+            @Override
+            public boolean hasNext() {
+                return position < end;
+            }
+            
+            @Override
+            public Receipt next() {
+                if (position >= end) {
+                    throw new NoSuchElementException();
+                }
+                return slots[(int) (position++ % slots.length)];
+            }
+        };
+    }
+    
+    List<Receipt> toList() {
+        List<Receipt> result = new ArrayList<>(size());
+        for (Receipt receipt : this) {
+            result.add(receipt);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package receipts;
+
+import java.util.Locale;
+
+/**
+ * Vendor name normalization shared by every receipt comparison, so indexes,
+ * matching and priority policies agree on which names are the same vendor.
+ */
+class VendorNames {
+    
+    /**
+     * Trims and lower-cases a vendor name in the root locale; null becomes "".
+     */
+    static String normalize(String vendor) {
+        return vendor == null ? "" : vendor.trim().toLowerCase(Locale.ROOT);
+    }
+}
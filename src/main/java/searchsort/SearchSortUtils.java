@@ -7,7 +7,8 @@ import java.util.*;
 
 /**
  * Utilities for searching and sorting expenditure records.
- * Uses arrays and binary search for efficient operations.
+ * Filters and grouping read any Iterable (such as an ExpenditureSnapshot) in place;
+ * sorts and binary searches take an array, which callers copy only for those.
  */
 public class SearchSortUtils {
     
@@ -70,7 +71,7 @@ public class SearchSortUtils {
     /**
      * Filters expenditures by amount range.
      */
-    public static List<Expenditure> filterByAmountRange(Expenditure[] expenditures, BigDecimal minAmount, BigDecimal maxAmount) {
+    public static List<Expenditure> filterByAmountRange(Iterable<Expenditure> expenditures, BigDecimal minAmount, BigDecimal maxAmount) {
         List<Expenditure> results = new ArrayList<>();
         
         for (Expenditure exp : expenditures) {
@@ -86,7 +87,7 @@ public class SearchSortUtils {
     /**
      * Filters expenditures by date range.
      */
-    public static List<Expenditure> filterByDateRange(Expenditure[] expenditures, LocalDate startDate, LocalDate endDate) {
+    public static List<Expenditure> filterByDateRange(Iterable<Expenditure> expenditures, LocalDate startDate, LocalDate endDate) {
         List<Expenditure> results = new ArrayList<>();
         
         for (Expenditure exp : expenditures) {
@@ -102,7 +103,7 @@ public class SearchSortUtils {
     /**
      * Filters expenditures by category.
      */
-    public static List<Expenditure> filterByCategory(Expenditure[] expenditures, String categoryId) {
+    public static List<Expenditure> filterByCategory(Iterable<Expenditure> expenditures, String categoryId) {
         List<Expenditure> results = new ArrayList<>();
         
         for (Expenditure exp : expenditures) {
@@ -117,7 +118,7 @@ public class SearchSortUtils {
     /**
      * Filters expenditures by account.
      */
-    public static List<Expenditure> filterByAccount(Expenditure[] expenditures, String accountId) {
+    public static List<Expenditure> filterByAccount(Iterable<Expenditure> expenditures, String accountId) {
         List<Expenditure> results = new ArrayList<>();
         
         for (Expenditure exp : expenditures) {
@@ -180,7 +181,7 @@ public class SearchSortUtils {
     /**
      * Performs multi-field search with multiple criteria.
      */
-    public static List<Expenditure> multiFieldSearch(Expenditure[] expenditures, SearchCriteria criteria) {
+    public static List<Expenditure> multiFieldSearch(Iterable<Expenditure> expenditures, SearchCriteria criteria) {
         List<Expenditure> results = new ArrayList<>();
         
         for (Expenditure exp : expenditures) {
@@ -270,7 +271,7 @@ public class SearchSortUtils {
     /**
      * Gets expenditures grouped by vendor.
      */
-    public static Map<String, List<Expenditure>> groupByVendor(Expenditure[] expenditures) {
+    public static Map<String, List<Expenditure>> groupByVendor(Iterable<Expenditure> expenditures) {
         Map<String, List<Expenditure>> grouped = new HashMap<>();
         
         for (Expenditure exp : expenditures) {
@@ -284,7 +285,7 @@ public class SearchSortUtils {
     /**
      * Gets expenditures grouped by category.
      */
-    public static Map<String, List<Expenditure>> groupByCategory(Expenditure[] expenditures) {
+    public static Map<String, List<Expenditure>> groupByCategory(Iterable<Expenditure> expenditures) {
         Map<String, List<Expenditure>> grouped = new HashMap<>();
         
         for (Expenditure exp : expenditures) {
@@ -0,0 +1,249 @@
+package tracker;
+
+import accounts.Account;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indexed binary min heap of accounts ordered by balance.
+ * A position map keyed by accountId makes contains O(1) and update/remove O(log n).
+ * Each entry caches the balance it was ordered by, so the heap stays valid
+ * even if an account's balance changes before the heap is told about it.
+ * Reads share a read lock and never modify the heap, so they may run concurrently.
+ */
+class AccountHeap {
+    private final List<Entry> heap;
+    private final Map<String, Integer> positions; // accountId -> index in heap
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    AccountHeap() {
+        this.heap = new ArrayList<>();
+        this.positions = new HashMap<>();
+    }
+    
+    /**
+     * Adds an account, or repositions it if it is already present.
+     */
+    void add(Account account) {
+        lock.writeLock().lock();
+        try {
+            if (!reposition(account)) {
+                heap.add(new Entry(account));
+                int last = heap.size() - 1;
+                positions.put(account.getAccountId(), last);
+                siftUp(last);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Re-reads an account's balance and restores heap order. Returns false if the account is not tracked.
+     */
+    boolean update(Account account) {
+        lock.writeLock().lock();
+        try {
+            return reposition(account);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private boolean reposition(Account account) {
+        Integer position = positions.get(account.getAccountId());
+        if (position == null) {
+            return false;
+        }
+        
+        Entry entry = heap.get(position);
+        BigDecimal previousKey = entry.key;
+        entry.account = account;
+        entry.key = account.getBalance();
+        
+        if (entry.key.compareTo(previousKey) < 0) {
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+        return true;
+    }
+    
+    /**
+     * Removes an account by ID. Returns the removed account, or null if it was not tracked.
+     */
+    Account remove(String accountId) {
+        lock.writeLock().lock();
+        try {
+            Integer position = positions.remove(accountId);
+            if (position == null) {
+                return null;
+            }
+            
+            Entry removed = heap.get(position);
+            Entry last = heap.remove(heap.size() - 1);
+            if (position < heap.size()) {
+                heap.set(position, last);
+                positions.put(last.account.getAccountId(), position);
+                siftUp(position);
+                siftDown(positions.get(last.account.getAccountId()));
+            }
+            return removed.account;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    boolean contains(String accountId) {
+        lock.readLock().lock();
+        try {
+            return positions.containsKey(accountId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    Account get(String accountId) {
+        lock.readLock().lock();
+        try {
+            Integer position = positions.get(accountId);
+            return position != null ? heap.get(position).account : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the account with the lowest balance without removing it.
+     */
+    Account peek() {
+        lock.readLock().lock();
+        try {
+            return heap.isEmpty() ? null : heap.get(0).account;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the k accounts with the lowest balances, lowest first, without modifying the heap.
+     * Walks the heap array best-first from the root: every popped node pushes only its
+     * two children onto a small frontier queue, so the cost is O(k log k) regardless of size.
+     */
+    List<Account> smallest(int k) {
+        lock.readLock().lock();
+        try {
+            List<Account> result = new ArrayList<>(Math.max(0, Math.min(k, heap.size())));
+            if (k <= 0 || heap.isEmpty()) {
+                return result;
+            }
+            
+            PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> compare(heap.get(a), heap.get(b)));
+            frontier.offer(0);
+            while (result.size() < k && !frontier.isEmpty()) {
+                int index = frontier.poll();
+                result.add(heap.get(index).account);
+                
+                int child = 2 * index + 1;
+                if (child < heap.size()) {
+                    frontier.offer(child);
+                }
+                if (child + 1 < heap.size()) {
+                    frontier.offer(child + 1);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    int size() {
+        lock.readLock().lock();
+        try {
+            return heap.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * Returns all tracked accounts in heap (not sorted) order.
+     */
+    List<Account> accounts() {
+        lock.readLock().lock();
+        try {
+            List<Account> result = new ArrayList<>(heap.size());
+            for (Entry entry : heap) {
+                result.add(entry.account);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void siftUp(int index) {
+        Entry entry = heap.get(index);
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            Entry parentEntry = heap.get(parent);
+            if (compare(entry, parentEntry) >= 0) {
+                break;
+            }
+            place(parentEntry, index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+    
+    private void siftDown(int index) {
+        Entry entry = heap.get(index);
+        int size = heap.size();
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compare(heap.get(child + 1), heap.get(child)) < 0) {
+                child++;
+            }
+            Entry childEntry = heap.get(child);
+            if (compare(childEntry, entry) >= 0) {
+                break;
+            }
+            place(childEntry, index);
+            index = child;
+        }
+        place(entry, index);
+    }
+    
+    private void place(Entry entry, int index) {
+        heap.set(index, entry);
+        positions.put(entry.account.getAccountId(), index);
+    }
+    
+    /**
+     * Orders by cached balance, then by accountId so equal balances have a stable order.
+     */
+    private static int compare(Entry a, Entry b) {
+        int byBalance = a.key.compareTo(b.key);
+        return byBalance != 0 ? byBalance : a.account.getAccountId().compareTo(b.account.getAccountId());
+    }
+    
+    private static class Entry {
+        private Account account;
+        private BigDecimal key; // Balance the entry is currently ordered by
+        
+        Entry(Account account) {
+            this.account = account;
+            this.key = account.getBalance();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package tracker;
+
+import java.util.*;
+
+/**
+ * Balance alerts indexed by alertId and by accountId, with unread and read
+ * alerts kept in separate sets. Lookups, inserts and read-marking are O(1);
+ * listing unread alerts or clearing read ones only touches those alerts.
+ */
+class AlertIndex {
+    private final Map<String, BalanceAlert> byId;             // All alerts in creation order
+    private final Map<String, BalanceAlert> unread;           // alertId -> unread alert, creation order
+    private final Map<String, BalanceAlert> unreadByAccount;  // accountId -> its (single) unread alert
+    private final Set<String> readIds;
+    
+    AlertIndex() {
+        this.byId = new LinkedHashMap<>();
+        this.unread = new LinkedHashMap<>();
+        this.unreadByAccount = new HashMap<>();
+        this.readIds = new LinkedHashSet<>();
+    }
+    
+    /**
+     * Adds an alert unless its account already has an unread one. Returns true if added.
+     */
+    synchronized boolean addUnlessUnread(BalanceAlert alert) {
+        if (!alert.isRead() && unreadByAccount.containsKey(alert.getAccountId())) {
+            return false;
+        }
+        
+        byId.put(alert.getAlertId(), alert);
+        if (alert.isRead()) {
+            readIds.add(alert.getAlertId());
+        } else {
+            unread.put(alert.getAlertId(), alert);
+            unreadByAccount.put(alert.getAccountId(), alert);
+        }
+        return true;
+    }
+    
+    synchronized boolean hasUnread(String accountId) {
+        return unreadByAccount.containsKey(accountId);
+    }
+    
+    synchronized BalanceAlert get(String alertId) {
+        return byId.get(alertId);
+    }
+    
+    /**
+     * Marks an alert as read. Returns false if no unread alert has this ID.
+     */
+    synchronized boolean markRead(String alertId) {
+        BalanceAlert alert = unread.remove(alertId);
+        if (alert == null) {
+            return false;
+        }
+        
+        alert.setRead(true);
+        unreadByAccount.remove(alert.getAccountId(), alert);
+        readIds.add(alertId);
+        return true;
+    }
+    
+    /**
+     * Removes all read alerts.
+     */
+    synchronized void clearRead() {
+        for (String alertId : readIds) {
+            byId.remove(alertId);
+        }
+        readIds.clear();
+    }
+    
+    synchronized List<BalanceAlert> all() {
+        return new ArrayList<>(byId.values());
+    }
+    
+    synchronized List<BalanceAlert> unread() {
+        return new ArrayList<>(unread.values());
+    }
+    
+    synchronized int unreadCount() {
+        return unread.size();
+    }
+}
@@ -42,7 +42,8 @@ public class BalanceAlert {
     public void setAlertDate(Date alertDate) { this.alertDate = alertDate; }
     
     public boolean isRead() { return isRead; }
-    public void setRead(boolean read) { isRead = read; }
+    // Package-private: marking read goes through AlertIndex.markRead so the unread count stays current
+    void setRead(boolean read) { isRead = read; }
     
     public String getMessage() {
         return String.format("Account %s balance (%s) is below threshold (%s)", 
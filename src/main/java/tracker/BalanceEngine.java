@@ -0,0 +1,76 @@
+package tracker;
+
+import accounts.Account;
+import accounts.AccountManager;
+import expenditures.Expenditure;
+import expenditures.ExpenditureEvent;
+import expenditures.ExpenditureListener;
+import java.math.BigDecimal;
+
+/**
+ * Posts expenditure changes to the linked account balances.
+ * Additions debit the account, removals credit it back, and updates reverse the
+ * previous posting before applying the new one. The account notifies its balance
+ * listeners, so a BankTracker following it sees the change without a reload.
+ */
+public class BalanceEngine implements ExpenditureListener {
+    private AccountManager accountManager;
+    private BankTracker bankTracker;
+    
+    public BalanceEngine(AccountManager accountManager) {
+        this(accountManager, null);
+    }
+    
+    /**
+     * Creates an engine that also starts tracking any account it posts to.
+     */
+    public BalanceEngine(AccountManager accountManager, BankTracker bankTracker) {
+        this.accountManager = accountManager;
+        this.bankTracker = bankTracker;
+    }
+    
+    @Override
+    public void onExpenditureEvent(ExpenditureEvent event) {
+        switch (event.getType()) {
+            case ADDED:
+                post(event.getCurrent(), false);
+                break;
+            case UPDATED:
+                post(event.getPrevious(), true);
+                post(event.getCurrent(), false);
+                break;
+            case REMOVED:
+                post(event.getPrevious(), true);
+                break;
+        }
+    }
+    
+    /**
+     * Debits the expenditure's account, or credits it when reversing.
+     * Negative amounts (refunds) post in the opposite direction.
+     */
+    private void post(Expenditure expenditure, boolean reverse) {
+        BigDecimal amount = expenditure.getAmount();
+        if (amount == null || amount.signum() == 0) {
+            return;
+        }
+        
+        Account account = accountManager.getAccount(expenditure.getAccountId());
+        if (account == null) {
+            System.err.println("Warning: Expenditure " + expenditure.getExpenditureId() +
+                             " references unknown account " + expenditure.getAccountId());
+            return;
+        }
+        
+        if (bankTracker != null && !bankTracker.isTracking(account.getAccountId())) {
+            bankTracker.addAccount(account);
+        }
+        
+        boolean debit = (amount.signum() > 0) != reverse;
+        if (debit) {
+            accountManager.debit(account.getAccountId(), amount.abs());
+        } else {
+            accountManager.credit(account.getAccountId(), amount.abs());
+        }
+    }
+}
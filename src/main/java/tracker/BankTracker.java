@@ -1,49 +1,99 @@
 package tracker;
 
 import accounts.Account;
+import accounts.BalanceListener;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Bank tracker using Min Heap to track accounts with lowest balances.
  * Provides alerts when account balances fall below thresholds.
+ * Tracked accounts notify the tracker of balance changes, so heap order
+ * stays correct when balances are debited or credited in place.
+ * Balance changes arrive on whichever thread posts them, so every index here is
+ * thread-safe, and a threshold and its index entry are changed together under one lock.
  */
 public class BankTracker {
-    private PriorityQueue<Account> minHeap;
+    private AccountHeap minHeap;
     private Map<String, BigDecimal> alertThresholds;
-    private List<BalanceAlert> alerts;
+    private final Object thresholdLock = new Object(); // Keeps alertThresholds and thresholdIndex in step
+    private ThresholdIndex thresholdIndex; // Tracked accounts with thresholds, ordered by headroom
+    private AlertIndex alerts; // Alerts by ID and account, unread kept separately
+    private final BalanceListener balanceListener = this::onBalanceChanged;
     
     public BankTracker() {
-        // Min heap ordered by balance (lowest first)
-        this.minHeap = new PriorityQueue<>(Comparator.comparing(Account::getBalance));
-        this.alertThresholds = new HashMap<>();
-        this.alerts = new ArrayList<>();
+        // Indexed min heap ordered by balance (lowest first)
+        this.minHeap = new AccountHeap();
+        this.alertThresholds = new ConcurrentHashMap<>();
+        this.thresholdIndex = new ThresholdIndex();
+        this.alerts = new AlertIndex();
     }
     
     /**
-     * Adds an account to the tracker.
+     * Adds an account to the tracker and subscribes to its balance changes.
      */
     public void addAccount(Account account) {
-        minHeap.offer(account);
+        Account previous = minHeap.get(account.getAccountId());
+        if (previous != null && previous != account) {
+            previous.removeBalanceListener(balanceListener);
+        }
+        minHeap.add(account);
+        account.addBalanceListener(balanceListener);
+        indexThreshold(account);
         checkAndCreateAlert(account);
     }
     
     /**
-     * Updates an account's balance and repositions in heap.
+     * Updates an account's balance and repositions in heap (O(log n)).
+     * Accounts not yet tracked are added.
      */
     public void updateAccount(Account account) {
-        // Remove and re-add to maintain heap property
-        minHeap.remove(account);
-        minHeap.offer(account);
-        checkAndCreateAlert(account);
+        addAccount(account);
     }
     
     /**
      * Removes an account from tracking.
      */
     public void removeAccount(Account account) {
-        minHeap.remove(account);
-        alertThresholds.remove(account.getAccountId());
+        Account removed = minHeap.remove(account.getAccountId());
+        if (removed != null) {
+            removed.removeBalanceListener(balanceListener);
+        }
+        account.removeBalanceListener(balanceListener);
+        synchronized (thresholdLock) {
+            alertThresholds.remove(account.getAccountId());
+            thresholdIndex.remove(account.getAccountId());
+        }
+    }
+    
+    /**
+     * Checks if an account is being tracked.
+     */
+    public boolean isTracking(String accountId) {
+        return minHeap.contains(accountId);
+    }
+    
+    /**
+     * Repositions an account after its balance changed in place.
+     */
+    private void onBalanceChanged(Account account) {
+        if (minHeap.update(account)) {
+            indexThreshold(account);
+            checkAndCreateAlert(account);
+        }
+    }
+    
+    /**
+     * Refreshes an account's position in the threshold index, if it has a threshold.
+     */
+    private void indexThreshold(Account account) {
+        synchronized (thresholdLock) {
+            BigDecimal threshold = alertThresholds.get(account.getAccountId());
+            if (threshold != null) {
+                thresholdIndex.update(account, threshold);
+            }
+        }
     }
     
     /**
@@ -54,39 +104,29 @@ public class BankTracker {
     }
     
     /**
-     * Gets the N accounts with the lowest balances.
+     * Gets the N accounts with the lowest balances, lowest first.
+     * Read-only: the heap is not modified, so this is safe to call from several threads.
      */
     public List<Account> getLowestBalanceAccounts(int n) {
-        List<Account> result = new ArrayList<>();
-        List<Account> temp = new ArrayList<>();
-        
-        // Extract min elements and store temporarily
-        for (int i = 0; i < n && !minHeap.isEmpty(); i++) {
-            Account account = minHeap.poll();
-            result.add(account);
-            temp.add(account);
-        }
-        
-        // Restore heap
-        for (Account account : temp) {
-            minHeap.offer(account);
-        }
-        
-        return result;
+        return minHeap.smallest(n);
     }
     
     /**
      * Sets an alert threshold for an account.
      */
     public void setAlertThreshold(String accountId, BigDecimal threshold) {
-        alertThresholds.put(accountId, threshold);
+        Account account;
+        synchronized (thresholdLock) {
+            alertThresholds.put(accountId, threshold);
+            account = minHeap.get(accountId);
+            if (account != null) {
+                thresholdIndex.update(account, threshold);
+            }
+        }
         
         // Check if current balance is below threshold
-        for (Account account : minHeap) {
-            if (account.getAccountId().equals(accountId)) {
-                checkAndCreateAlert(account);
-                break;
-            }
+        if (account != null) {
+            checkAndCreateAlert(account);
         }
     }
     
@@ -98,58 +138,59 @@ public class BankTracker {
     }
     
     /**
-     * Gets all accounts below their alert thresholds.
+     * Gets all accounts below their alert thresholds, furthest below first (O(k + log n)).
      */
     public List<Account> getAccountsBelowThreshold() {
-        List<Account> result = new ArrayList<>();
-        
-        for (Account account : minHeap) {
-            BigDecimal threshold = alertThresholds.get(account.getAccountId());
-            if (threshold != null && account.getBalance().compareTo(threshold) < 0) {
-                result.add(account);
-            }
-        }
-        
-        return result;
+        return thresholdIndex.breached();
+    }
+    
+    /**
+     * Gets accounts still above their alert thresholds but within the given margin of them.
+     */
+    public List<Account> getAccountsNearThreshold(BigDecimal margin) {
+        return thresholdIndex.withinMargin(margin);
     }
     
     /**
      * Gets all active alerts.
      */
     public List<BalanceAlert> getAlerts() {
-        return new ArrayList<>(alerts);
+        return alerts.all();
     }
     
     /**
      * Gets unread alerts.
      */
     public List<BalanceAlert> getUnreadAlerts() {
-        List<BalanceAlert> unread = new ArrayList<>();
-        for (BalanceAlert alert : alerts) {
-            if (!alert.isRead()) {
-                unread.add(alert);
-            }
-        }
-        return unread;
+        return alerts.unread();
+    }
+    
+    /**
+     * Gets the number of unread alerts.
+     */
+    public int getUnreadAlertCount() {
+        return alerts.unreadCount();
+    }
+    
+    /**
+     * Gets an alert by ID.
+     */
+    public BalanceAlert getAlert(String alertId) {
+        return alerts.get(alertId);
     }
     
     /**
      * Marks an alert as read.
      */
     public void markAlertAsRead(String alertId) {
-        for (BalanceAlert alert : alerts) {
-            if (alert.getAlertId().equals(alertId)) {
-                alert.setRead(true);
-                break;
-            }
-        }
+        alerts.markRead(alertId);
     }
     
     /**
      * Clears all read alerts.
      */
     public void clearReadAlerts() {
-        alerts.removeIf(BalanceAlert::isRead);
+        alerts.clearRead();
     }
     
     /**
@@ -158,7 +199,7 @@ public class BankTracker {
     public List<Account> getAccountsBelowAmount(BigDecimal amount) {
         List<Account> result = new ArrayList<>();
         
-        for (Account account : minHeap) {
+        for (Account account : minHeap.accounts()) {
             if (account.getBalance().compareTo(amount) < 0) {
                 result.add(account);
             }
@@ -172,7 +213,7 @@ public class BankTracker {
      */
     public BigDecimal getTotalBalance() {
         BigDecimal total = BigDecimal.ZERO;
-        for (Account account : minHeap) {
+        for (Account account : minHeap.accounts()) {
             total = total.add(account.getBalance());
         }
         return total;
@@ -197,7 +238,7 @@ public class BankTracker {
         }
         
         BigDecimal min = getLowestBalanceAccount().getBalance();
-        BigDecimal max = Collections.max(minHeap, Comparator.comparing(Account::getBalance)).getBalance();
+        BigDecimal max = Collections.max(minHeap.accounts(), Comparator.comparing(Account::getBalance)).getBalance();
         BigDecimal average = getAverageBalance();
         int count = minHeap.size();
         
@@ -211,10 +252,7 @@ public class BankTracker {
         BigDecimal threshold = alertThresholds.get(account.getAccountId());
         if (threshold != null && account.getBalance().compareTo(threshold) < 0) {
             // Check if we already have an unread alert for this account
-            boolean hasUnreadAlert = alerts.stream()
-                .anyMatch(alert -> alert.getAccountId().equals(account.getAccountId()) && !alert.isRead());
-            
-            if (!hasUnreadAlert) {
+            if (!alerts.hasUnread(account.getAccountId())) {
                 BalanceAlert alert = new BalanceAlert(
                     UUID.randomUUID().toString(),
                     account.getAccountId(),
@@ -223,7 +261,7 @@ public class BankTracker {
                     new Date(),
                     false
                 );
-                alerts.add(alert);
+                alerts.addUnlessUnread(alert);
             }
         }
     }
@@ -0,0 +1,97 @@
+package tracker;
+
+import accounts.Account;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Accounts with alert thresholds, ordered by headroom (balance - threshold).
+ * Accounts in breach have negative headroom and sit at the front, so they
+ * come out in O(k); accounts close to breaching are a range query.
+ */
+class ThresholdIndex {
+    private final TreeSet<Entry> byHeadroom;
+    private final Map<String, Entry> byAccountId;
+    
+    ThresholdIndex() {
+        this.byHeadroom = new TreeSet<>();
+        this.byAccountId = new HashMap<>();
+    }
+    
+    /**
+     * Indexes (or re-indexes) an account against its threshold in O(log n).
+     */
+    synchronized void update(Account account, BigDecimal threshold) {
+        remove(account.getAccountId());
+        Entry entry = new Entry(account, account.getBalance().subtract(threshold));
+        byHeadroom.add(entry);
+        byAccountId.put(account.getAccountId(), entry);
+    }
+    
+    synchronized void remove(String accountId) {
+        Entry entry = byAccountId.remove(accountId);
+        if (entry != null) {
+            byHeadroom.remove(entry);
+        }
+    }
+    
+    /**
+     * Gets accounts whose balance is below their threshold, furthest below first.
+     */
+    synchronized List<Account> breached() {
+        return toAccounts(byHeadroom.headSet(bound(BigDecimal.ZERO), false));
+    }
+    
+    /**
+     * Gets accounts not yet in breach but within the given margin of their threshold
+     * (headroom up to and including the margin), closest first.
+     */
+    synchronized List<Account> withinMargin(BigDecimal margin) {
+        List<Account> result = new ArrayList<>();
+        if (margin.signum() <= 0) {
+            return result;
+        }
+        // bound() sorts before entries at its headroom, so walk up from zero rather than
+        // cutting at bound(margin), which would drop accounts exactly at the margin
+        for (Entry entry : byHeadroom.tailSet(bound(BigDecimal.ZERO), true)) {
+            if (entry.headroom.compareTo(margin) > 0) {
+                break;
+            }
+            result.add(entry.account);
+        }
+        return result;
+    }
+    
+    private static List<Account> toAccounts(Collection<Entry> entries) {
+        List<Account> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            result.add(entry.account);
+        }
+        return result;
+    }
+    
+    /**
+     * Search key that sorts before every real entry with the same headroom.
+     */
+    private static Entry bound(BigDecimal headroom) {
+        return new Entry(null, headroom);
+    }
+    
+    private static class Entry implements Comparable<Entry> {
+        private final Account account;
+        private final String accountId;
+        private final BigDecimal headroom;
+        
+        Entry(Account account, BigDecimal headroom) {
+            this.account = account;
+            this.accountId = account != null ? account.getAccountId() : "";
+            this.headroom = headroom;
+        }
+        
+        @Override
+        public int compareTo(Entry other) {
+            int byHeadroom = headroom.compareTo(other.headroom);
+            return byHeadroom != 0 ? byHeadroom : accountId.compareTo(other.accountId);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import java.math.BigDecimal;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -19,7 +21,7 @@ public class AccountManagerTest {
     
     @BeforeEach
     void setUp() {
-        accountManager = new AccountManager();
+        accountManager = new AccountManager(tempDir.resolve("accounts.txt"));
     }
     
     @Test
@@ -74,4 +76,54 @@ public class AccountManagerTest {
         assertEquals(1, lowBalanceAccounts.size());
         assertEquals("ACC001", lowBalanceAccounts.get(0).getAccountId());
     }
+    
+    @Test
+    void testConcurrentTransfersConserveTotal() throws InterruptedException {
+        accountManager.addAccount(new Account("ACC001", "Operating", "Checking", 
+                                              new BigDecimal("1000.00"), "Test Bank"));
+        accountManager.addAccount(new Account("ACC002", "Reserve", "Savings", 
+                                              new BigDecimal("1000.00"), "Test Bank"));
+        
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean forward = t % 2 == 0;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    if (forward) {
+                        accountManager.transfer("ACC001", "ACC002", new BigDecimal("1.00"));
+                    } else {
+                        accountManager.transfer("ACC002", "ACC001", new BigDecimal("0.50"));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // Two forward threads move 400.00 out, two backward threads move 200.00 back
+        assertEquals(0, new BigDecimal("800.00").compareTo(accountManager.getAccount("ACC001").getBalance()));
+        assertEquals(0, new BigDecimal("1200.00").compareTo(accountManager.getAccount("ACC002").getBalance()));
+        assertFalse(accountManager.transfer("ACC001", "ACC001", new BigDecimal("1.00")));
+        assertFalse(accountManager.transfer("ACC001", "NOPE", new BigDecimal("1.00")));
+        
+        // The last save covers every posting, whichever thread ended up writing it
+        AccountManager reloaded = new AccountManager(tempDir.resolve("accounts.txt"));
+        assertEquals(0, new BigDecimal("800.00").compareTo(reloaded.getAccount("ACC001").getBalance()));
+        assertEquals(0, new BigDecimal("1200.00").compareTo(reloaded.getAccount("ACC002").getBalance()));
+    }
+    
+    @Test
+    void testPostingsArePersisted() {
+        accountManager.addAccount(new Account("ACC001", "Operating", "Checking", 
+                                              new BigDecimal("1000.00"), "Test Bank"));
+        assertTrue(accountManager.debit("ACC001", new BigDecimal("250.00")));
+        assertTrue(accountManager.credit("ACC001", new BigDecimal("50.00")));
+        
+        AccountManager reloaded = new AccountManager(tempDir.resolve("accounts.txt"));
+        assertEquals(0, new BigDecimal("800.00").compareTo(reloaded.getAccount("ACC001").getBalance()));
+    }
 }
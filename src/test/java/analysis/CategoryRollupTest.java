@@ -0,0 +1,71 @@
+package analysis;
+
+import categories.Category;
+import expenditures.Expenditure;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for CategoryRollup.
+ */
+public class CategoryRollupTest {
+    
+    private static Expenditure expenditure(String id, String categoryId, String amount) {
+        return new Expenditure(id, "Test", new BigDecimal(amount), LocalDate.of(2024, 5, 10),
+                               "ACC001", categoryId, "Vendor", "PRJ001");
+    }
+    
+    @Test
+    void testSubtreeTotalsIncludeAllDescendants() {
+        List<Category> categories = List.of(
+            new Category("MAT", "Materials", "Test", null, true),
+            new Category("LUM", "Lumber", "Test", "MAT", true),
+            new Category("PLY", "Plywood", "Test", "LUM", true),
+            new Category("CON", "Concrete", "Test", "MAT", true),
+            new Category("LAB", "Labor", "Test", "", true));
+        List<Expenditure> expenditures = List.of(
+            expenditure("E1", "PLY", "100"),
+            expenditure("E2", "LUM", "50"),
+            expenditure("E3", "CON", "25.50"),
+            expenditure("E4", "MAT", "1"),
+            expenditure("E5", "LAB", "300"),
+            expenditure("E6", "GONE", "7"));
+        
+        CategoryRollup rollup = FinancialAnalysis.analyzeCategoryRollup(expenditures, categories);
+        
+        assertEquals(0, new BigDecimal("176.50").compareTo(rollup.getSubtreeTotal("MAT")));
+        assertEquals(0, new BigDecimal("150").compareTo(rollup.getSubtreeTotal("LUM")));
+        assertEquals(0, new BigDecimal("1").compareTo(rollup.getDirectTotal("MAT")));
+        assertEquals(4, rollup.getSubtreeCount("MAT"));
+        assertEquals(0, new BigDecimal("7").compareTo(rollup.getUnassignedTotal()));
+        assertTrue(rollup.isAncestor("MAT", "PLY"));
+        assertFalse(rollup.isAncestor("CON", "PLY"));
+        assertEquals(2, rollup.getDepth("PLY"));
+        assertEquals("LAB", rollup.getTopSubtrees(1).get(0).getCategoryId());
+    }
+    
+    @Test
+    void testDeepChainAndCyclesDoNotOverflow() {
+        List<Category> categories = new ArrayList<>();
+        categories.add(new Category("C0", "C0", "Test", null, true));
+        for (int i = 1; i < 20_000; i++) {
+            categories.add(new Category("C" + i, "C" + i, "Test", "C" + (i - 1), true));
+        }
+        categories.add(new Category("X", "X", "Test", "Y", true));
+        categories.add(new Category("Y", "Y", "Test", "X", true));
+        
+        CategoryRollup rollup = new CategoryRollup(categories,
+            List.of(expenditure("E1", "C19999", "5"), expenditure("E2", "Y", "2")));
+        
+        assertEquals(0, new BigDecimal("5").compareTo(rollup.getSubtreeTotal("C0")));
+        assertEquals(19_999, rollup.getDepth("C19999"));
+        // The X <-> Y cycle is broken at whichever is reached first; the other hangs below it
+        String top = rollup.isAncestor("X", "Y") ? "X" : "Y";
+        assertTrue(rollup.isAncestor(top, top.equals("X") ? "Y" : "X"));
+        assertEquals(0, new BigDecimal("2").compareTo(rollup.getSubtreeTotal(top)));
+    }
+}
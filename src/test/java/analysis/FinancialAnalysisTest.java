@@ -0,0 +1,170 @@
+package analysis;
+
+import expenditures.Expenditure;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for FinancialAnalysis: the single-scan report and the parallel
+ * group-bys must agree with the sequential analyses they replace.
+ */
+public class FinancialAnalysisTest {
+    
+    private static final LocalDate START = LocalDate.of(2024, 2, 1);
+    private static final LocalDate END = LocalDate.of(2024, 9, 30);
+    private static final int LARGE = 12_000; // Above FinancialAnalysis.PARALLEL_THRESHOLD
+    
+    /**
+     * Builds a reproducible spread of expenditures over 2023-2024.
+     */
+    private static List<Expenditure> expenditures(int count) {
+        Random random = new Random(42);
+        List<Expenditure> result = new ArrayList<>(count);
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < count; i++) {
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+            result.add(new Expenditure("E" + i, "Item " + i, amount, first.plusDays(random.nextInt(730)),
+                                        "ACC" + random.nextInt(4), "CAT" + random.nextInt(20),
+                                        "Vendor " + random.nextInt(15), "PRJ" + random.nextInt(3)));
+        }
+        return result;
+    }
+    
+    private static void assertSameAmount(BigDecimal expected, BigDecimal actual) {
+        assertEquals(0, expected.compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+    
+    private static void assertSameCategories(Map<String, CategoryAnalysis> expected, Map<String, CategoryAnalysis> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String categoryId : expected.keySet()) {
+            CategoryAnalysis e = expected.get(categoryId);
+            CategoryAnalysis a = actual.get(categoryId);
+            assertSameAmount(e.getTotalAmount(), a.getTotalAmount());
+            assertEquals(e.getTransactionCount(), a.getTransactionCount());
+            assertSameAmount(e.getAverageAmount(), a.getAverageAmount());
+            assertEquals(e.getFirstTransaction(), a.getFirstTransaction());
+            assertEquals(e.getLastTransaction(), a.getLastTransaction());
+        }
+    }
+    
+    private static void assertSameVendors(Map<String, VendorAnalysis> expected, Map<String, VendorAnalysis> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String vendor : expected.keySet()) {
+            VendorAnalysis e = expected.get(vendor);
+            VendorAnalysis a = actual.get(vendor);
+            assertSameAmount(e.getTotalAmount(), a.getTotalAmount());
+            assertEquals(e.getTransactionCount(), a.getTransactionCount());
+            assertSameAmount(e.getAverageAmount(), a.getAverageAmount());
+            assertEquals(e.getFirstTransaction(), a.getFirstTransaction());
+            assertEquals(e.getLastTransaction(), a.getLastTransaction());
+        }
+    }
+    
+    private static Set<String> ids(Collection<Expenditure> expenditures) {
+        return expenditures.stream().map(Expenditure::getExpenditureId).collect(Collectors.toSet());
+    }
+    
+    @Test
+    void testFullReportMatchesIndividualAnalyses() {
+        for (int count : new int[] {0, 250, LARGE}) {
+            List<Expenditure> expenditures = expenditures(count);
+            AnalysisReport report = FinancialAnalysis.fullReport(expenditures, START, END, 2024, 5);
+            
+            assertSameAmount(FinancialAnalysis.calculateBurnRate(expenditures, START, END), report.getBurnRate());
+            Map<String, BigDecimal> monthly = FinancialAnalysis.calculateMonthlySpending(expenditures, 2024);
+            assertEquals(monthly.keySet(), report.getMonthlySpending().keySet());
+            monthly.forEach((month, total) -> assertSameAmount(total, report.getMonthlySpending().get(month)));
+            assertSameCategories(FinancialAnalysis.analyzeByCategoryIds(expenditures), report.getCategoryAnalysis());
+            assertSameVendors(FinancialAnalysis.analyzeByVendor(expenditures), report.getVendorAnalysis());
+            
+            TrendAnalysis trend = FinancialAnalysis.analyzeTrends(expenditures, START, END);
+            assertEquals(trend.getTrendDirection(), report.getTrendAnalysis().getTrendDirection());
+            assertEquals(trend.getWeeklySpending().size(), report.getTrendAnalysis().getWeeklySpending().size());
+            for (int week = 0; week < trend.getWeeklySpending().size(); week++) {
+                assertSameAmount(trend.getWeeklySpending().get(week), report.getTrendAnalysis().getWeeklySpending().get(week));
+            }
+            
+            List<CategorySummary> top = FinancialAnalysis.getTopSpendingCategories(expenditures, 5);
+            assertEquals(top.size(), report.getTopCategories().size());
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(top.get(i).getCategoryId(), report.getTopCategories().get(i).getCategoryId());
+                assertSameAmount(top.get(i).getTotalAmount(), report.getTopCategories().get(i).getTotalAmount());
+            }
+            
+            EfficiencyMetrics metrics = FinancialAnalysis.calculateEfficiencyMetrics(expenditures, START, END);
+            assertSameAmount(metrics.getTotalSpent(), report.getEfficiencyMetrics().getTotalSpent());
+            assertEquals(metrics.getTransactionCount(), report.getEfficiencyMetrics().getTransactionCount());
+            assertEquals(metrics.getUniqueVendorCount(), report.getEfficiencyMetrics().getUniqueVendorCount());
+            assertSameAmount(metrics.getAverageTransactionAmount(), report.getEfficiencyMetrics().getAverageTransactionAmount());
+        }
+    }
+    
+    @Test
+    void testParallelGroupByMatchesSequential() {
+        for (int count : new int[] {250, LARGE}) {
+            List<Expenditure> expenditures = expenditures(count);
+            assertSameCategories(FinancialAnalysis.analyzeByCategoryIds(expenditures),
+                                 FinancialAnalysis.analyzeByCategoryIdsParallel(expenditures));
+            assertSameVendors(FinancialAnalysis.analyzeByVendor(expenditures),
+                              FinancialAnalysis.analyzeByVendorParallel(expenditures));
+        }
+    }
+    
+    @Test
+    void testMergedPartialsMatchOneAccumulator() {
+        List<Expenditure> expenditures = expenditures(1_000);
+        CategoryAnalysis whole = new CategoryAnalysis("ALL");
+        CategoryAnalysis left = new CategoryAnalysis("ALL");
+        CategoryAnalysis right = new CategoryAnalysis("ALL");
+        VendorAnalysis wholeVendor = new VendorAnalysis("ALL");
+        VendorAnalysis leftVendor = new VendorAnalysis("ALL");
+        VendorAnalysis rightVendor = new VendorAnalysis("ALL", false);
+        for (int i = 0; i < expenditures.size(); i++) {
+            whole.addExpenditure(expenditures.get(i));
+            wholeVendor.addExpenditure(expenditures.get(i));
+            (i % 3 == 0 ? left : right).addExpenditure(expenditures.get(i));
+            (i % 3 == 0 ? leftVendor : rightVendor).addExpenditure(expenditures.get(i));
+        }
+        left.getAverageAmount(); // Cached average must be dropped by merge
+        
+        assertSameCategories(Map.of("ALL", whole), Map.of("ALL", left.merge(right)));
+        assertEquals(ids(whole.getExpenditures()), ids(left.getExpenditures()));
+        assertSameVendors(Map.of("ALL", wholeVendor), Map.of("ALL", leftVendor.merge(rightVendor)));
+        assertFalse(leftVendor.isRetainingExpenditures());
+        
+        CategoryAnalysis empty = new CategoryAnalysis("ALL").merge(new CategoryAnalysis("ALL"));
+        assertNull(empty.getFirstTransaction());
+        assertSameAmount(BigDecimal.ZERO, empty.getAverageAmount());
+    }
+    
+    @Test
+    void testSummaryOnlyModeResolvesExpendituresLazily() {
+        List<Expenditure> expenditures = expenditures(LARGE);
+        Map<String, List<Expenditure>> byCategory = expenditures.stream()
+            .collect(Collectors.groupingBy(Expenditure::getCategoryId));
+        Map<String, List<Expenditure>> byVendor = expenditures.stream()
+            .collect(Collectors.groupingBy(Expenditure::getVendor));
+        List<String> resolved = new ArrayList<>();
+        
+        Map<String, CategoryAnalysis> sequential = FinancialAnalysis.analyzeByCategoryIds(expenditures);
+        Map<String, CategoryAnalysis> summaries = FinancialAnalysis.analyzeByCategoryIdsParallel(expenditures, id -> {
+            resolved.add(id);
+            return byCategory.get(id);
+        });
+        assertSameCategories(sequential, summaries);
+        assertTrue(resolved.isEmpty());
+        
+        CategoryAnalysis summary = summaries.get("CAT7");
+        assertFalse(summary.isRetainingExpenditures());
+        assertEquals(ids(sequential.get("CAT7").getExpenditures()), ids(summary.getExpenditures()));
+        assertEquals(List.of("CAT7"), resolved);
+        
+        Map<String, VendorAnalysis> vendors = FinancialAnalysis.analyzeByVendorParallel(expenditures, byVendor::get);
+        assertSameVendors(FinancialAnalysis.analyzeByVendor(expenditures), vendors);
+        assertEquals(ids(byVendor.get("Vendor 3")), ids(vendors.get("Vendor 3").getExpenditures()));
+    }
+}
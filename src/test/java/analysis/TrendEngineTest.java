@@ -0,0 +1,142 @@
+package analysis;
+
+import expenditures.Expenditure;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for TrendEngine.
+ */
+public class TrendEngineTest {
+    
+    private static Expenditure expenditure(String id, String categoryId, String amount, LocalDate date) {
+        return new Expenditure(id, "Test", new BigDecimal(amount), date, "ACC001", categoryId, "Vendor", "PRJ001");
+    }
+    
+    private static LocalDate day(int year, int month, int dayOfMonth) {
+        return LocalDate.of(year, month, dayOfMonth);
+    }
+    
+    private static void assertSeries(List<BigDecimal> expected, List<BigDecimal> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(0, expected.get(i).compareTo(actual.get(i)), "bucket " + i);
+        }
+    }
+    
+    /**
+     * The original weekly algorithm: one scan of every expenditure per week.
+     */
+    private static List<BigDecimal> weeklyByScanning(List<Expenditure> expenditures, LocalDate startDate, LocalDate endDate) {
+        List<BigDecimal> weeklySpending = new ArrayList<>();
+        for (LocalDate weekStart = startDate; !weekStart.isAfter(endDate); weekStart = weekStart.plusWeeks(1)) {
+            LocalDate weekEnd = weekStart.plusDays(6).isAfter(endDate) ? endDate : weekStart.plusDays(6);
+            BigDecimal weeklyAmount = BigDecimal.ZERO;
+            for (Expenditure exp : expenditures) {
+                if (!exp.getDate().isBefore(weekStart) && !exp.getDate().isAfter(weekEnd)) {
+                    weeklyAmount = weeklyAmount.add(exp.getAmount());
+                }
+            }
+            weeklySpending.add(weeklyAmount);
+        }
+        return weeklySpending;
+    }
+    
+    @Test
+    void testDayAndWeekBuckets() {
+        LocalDate start = day(2024, 1, 1);
+        assertEquals(10, TrendEngine.bucketCount(start, day(2024, 1, 10), TrendEngine.BucketSize.DAY));
+        assertEquals(9, TrendEngine.bucketIndex(start, day(2024, 1, 10), TrendEngine.BucketSize.DAY));
+        
+        assertEquals(0, TrendEngine.bucketIndex(start, day(2024, 1, 7), TrendEngine.BucketSize.WEEK));
+        assertEquals(1, TrendEngine.bucketIndex(start, day(2024, 1, 8), TrendEngine.BucketSize.WEEK));
+        assertEquals(2, TrendEngine.bucketCount(start, day(2024, 1, 14), TrendEngine.BucketSize.WEEK));
+        assertEquals(3, TrendEngine.bucketCount(start, day(2024, 1, 15), TrendEngine.BucketSize.WEEK));
+    }
+    
+    @Test
+    void testMonthAndQuarterBucketsFollowPlusMonths() {
+        LocalDate start = day(2024, 1, 15);
+        assertEquals(2, TrendEngine.bucketCount(start, day(2024, 3, 14), TrendEngine.BucketSize.MONTH));
+        assertEquals(3, TrendEngine.bucketCount(start, day(2024, 3, 15), TrendEngine.BucketSize.MONTH));
+        
+        // Anchored on a month end: Jan 31 plus one month is Feb 29, which starts bucket 1
+        LocalDate monthEnd = day(2024, 1, 31);
+        assertEquals(0, TrendEngine.bucketIndex(monthEnd, day(2024, 2, 28), TrendEngine.BucketSize.MONTH));
+        assertEquals(1, TrendEngine.bucketIndex(monthEnd, day(2024, 2, 29), TrendEngine.BucketSize.MONTH));
+        assertEquals(1, TrendEngine.bucketIndex(monthEnd, day(2024, 3, 30), TrendEngine.BucketSize.MONTH));
+        assertEquals(2, TrendEngine.bucketIndex(monthEnd, day(2024, 3, 31), TrendEngine.BucketSize.MONTH));
+        assertEquals(2, TrendEngine.bucketCount(monthEnd, day(2024, 2, 29), TrendEngine.BucketSize.MONTH));
+        
+        LocalDate quarterStart = day(2024, 1, 1);
+        assertEquals(0, TrendEngine.bucketIndex(quarterStart, day(2024, 3, 31), TrendEngine.BucketSize.QUARTER));
+        assertEquals(1, TrendEngine.bucketIndex(quarterStart, day(2024, 4, 1), TrendEngine.BucketSize.QUARTER));
+        assertEquals(4, TrendEngine.bucketCount(quarterStart, day(2024, 12, 31), TrendEngine.BucketSize.QUARTER));
+        assertEquals(0, TrendEngine.bucketIndex(day(2023, 11, 30), day(2024, 2, 28), TrendEngine.BucketSize.QUARTER));
+        assertEquals(1, TrendEngine.bucketIndex(day(2023, 11, 30), day(2024, 2, 29), TrendEngine.BucketSize.QUARTER));
+    }
+    
+    @Test
+    void testEmptyAndInvertedRanges() {
+        LocalDate start = day(2024, 5, 10);
+        for (TrendEngine.BucketSize size : TrendEngine.BucketSize.values()) {
+            assertEquals(1, TrendEngine.bucketCount(start, start, size));
+            assertEquals(0, TrendEngine.bucketCount(start, start.minusDays(1), size));
+        }
+        
+        TrendAnalysis inverted = TrendEngine.analyze(List.of(expenditure("E1", "CAT001", "10.00", start)),
+                                                     start, start.minusDays(1), TrendEngine.BucketSize.WEEK);
+        assertTrue(inverted.getBucketSpending().isEmpty());
+        assertEquals(FinancialAnalysis.TrendDirection.STABLE, inverted.getTrendDirection());
+        assertTrue(TrendEngine.analyzeByCategory(List.of(), start, start.plusDays(30), TrendEngine.BucketSize.DAY).isEmpty());
+    }
+    
+    @Test
+    void testPerCategorySeries() {
+        LocalDate start = day(2024, 1, 1);
+        List<Expenditure> expenditures = List.of(
+            expenditure("E1", "CAT001", "10.00", day(2024, 1, 5)),
+            expenditure("E2", "CAT001", "30.00", day(2024, 2, 20)),
+            expenditure("E3", "CAT002", "5.00", day(2024, 1, 31)),
+            expenditure("E4", "CAT002", "7.00", day(2024, 3, 1)),
+            expenditure("E5", "CAT003", "99.00", day(2023, 12, 31)));  // before the range
+        
+        Map<String, TrendAnalysis> byCategory = TrendEngine.analyzeByCategory(expenditures, start, day(2024, 3, 31),
+                                                                              TrendEngine.BucketSize.MONTH);
+        
+        assertEquals(Set.of("CAT001", "CAT002"), byCategory.keySet());
+        assertSeries(List.of(new BigDecimal("10.00"), new BigDecimal("30.00"), BigDecimal.ZERO),
+                     byCategory.get("CAT001").getBucketSpending());
+        assertSeries(List.of(new BigDecimal("5.00"), BigDecimal.ZERO, new BigDecimal("7.00")),
+                     byCategory.get("CAT002").getBucketSpending());
+        assertEquals(TrendEngine.BucketSize.MONTH, byCategory.get("CAT001").getBucketSize());
+        assertEquals(FinancialAnalysis.TrendDirection.INCREASING, byCategory.get("CAT001").getTrendDirection());
+        
+        TrendAnalysis overall = TrendEngine.analyze(expenditures, start, day(2024, 3, 31), TrendEngine.BucketSize.MONTH);
+        assertSeries(List.of(new BigDecimal("15.00"), new BigDecimal("30.00"), new BigDecimal("7.00")),
+                     overall.getBucketSpending());
+    }
+    
+    @Test
+    void testWeeklySeriesMatchesScanningEachWeek() {
+        Random random = new Random(7);
+        List<Expenditure> expenditures = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            expenditures.add(expenditure("E" + i, "CAT" + random.nextInt(5),
+                                         BigDecimal.valueOf(random.nextInt(100_000), 2).toPlainString(),
+                                         day(2024, 1, 1).plusDays(random.nextInt(400))));
+        }
+        
+        // End mid-week so the last bucket is partial
+        LocalDate start = day(2024, 2, 3);
+        LocalDate end = day(2024, 11, 20);
+        List<BigDecimal> expected = weeklyByScanning(expenditures, start, end);
+        TrendAnalysis trend = FinancialAnalysis.analyzeTrends(expenditures, start, end);
+        
+        assertSeries(expected, trend.getWeeklySpending());
+        assertEquals(FinancialAnalysis.calculateTrend(expected.toArray(new BigDecimal[0])), trend.getTrendDirection());
+    }
+}
@@ -0,0 +1,101 @@
+package categories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for CategoryManager.
+ */
+public class CategoryManagerTest {
+    private CategoryManager categoryManager;
+    
+    @TempDir
+    Path dir;
+    
+    @BeforeEach
+    void setUp() {
+        categoryManager = new CategoryManager(dir.resolve("categories.txt"));
+    }
+    
+    @Test
+    void testChildIndexFollowsAddUpdateAndRemove() {
+        // Child first, so the parent has to pick it up when it is added
+        categoryManager.addCategory(new Category("CMT_MID", "Mid", "Test", "CMT_ROOT", true));
+        categoryManager.addCategory(new Category("CMT_ROOT", "Root", "Test", null, true));
+        categoryManager.addCategory(new Category("CMT_OTHER", "Other", "Test", null, true));
+        
+        assertTrue(categoryManager.getRootCategories().contains(categoryManager.getCategory("CMT_ROOT")));
+        assertEquals(1, categoryManager.getSubcategories("CMT_ROOT").size());
+        
+        Category mid = categoryManager.getCategory("CMT_MID");
+        mid.setParentCategoryId("CMT_OTHER");
+        categoryManager.updateCategory(mid);
+        assertTrue(categoryManager.getSubcategories("CMT_ROOT").isEmpty());
+        assertEquals(1, categoryManager.getSubcategories("CMT_OTHER").size());
+        
+        // Moving a category under its own subcategory is refused
+        Category other = categoryManager.getCategory("CMT_OTHER");
+        other.setParentCategoryId("CMT_MID");
+        categoryManager.updateCategory(other);
+        assertNull(other.getParentCategoryId());
+        assertTrue(categoryManager.getRootCategories().contains(other));
+    }
+    
+    @Test
+    void testSubtreeSpendRollsUpThroughMoves() {
+        categoryManager.addCategory(new Category("CMT_ROOT", "Root", "Test", null, true));
+        categoryManager.addCategory(new Category("CMT_MID", "Mid", "Test", "CMT_ROOT", true));
+        categoryManager.addCategory(new Category("CMT_LEAF", "Leaf", "Test", "CMT_MID", true));
+        categoryManager.addCategory(new Category("CMT_OTHER", "Other", "Test", null, true));
+        
+        categoryManager.addSpend("CMT_LEAF", new BigDecimal("100"));
+        categoryManager.addSpend("CMT_MID", new BigDecimal("20"));
+        categoryManager.addSpend("CMT_ROOT", new BigDecimal("3"));
+        assertEquals(0, new BigDecimal("123").compareTo(categoryManager.getSubtreeSpend("CMT_ROOT")));
+        assertEquals(0, new BigDecimal("120").compareTo(categoryManager.getSubtreeSpend("CMT_MID")));
+        assertEquals(0, new BigDecimal("3").compareTo(categoryManager.getSpend("CMT_ROOT")));
+        
+        Category mid = categoryManager.getCategory("CMT_MID");
+        mid.setParentCategoryId("CMT_OTHER");
+        categoryManager.updateCategory(mid);
+        assertEquals(0, new BigDecimal("3").compareTo(categoryManager.getSubtreeSpend("CMT_ROOT")));
+        assertEquals(0, new BigDecimal("120").compareTo(categoryManager.getSubtreeSpend("CMT_OTHER")));
+        
+        categoryManager.addSpend("CMT_LEAF", new BigDecimal("-100"));
+        categoryManager.removeCategory("CMT_MID");
+        assertEquals(0, BigDecimal.ZERO.compareTo(categoryManager.getSubtreeSpend("CMT_OTHER")));
+    }
+    
+    @Test
+    void testConcurrentSpendPostingsRollUp() throws InterruptedException {
+        categoryManager.addCategory(new Category("CMT_ROOT", "Root", "Test", null, true));
+        categoryManager.addCategory(new Category("CMT_MID", "Mid", "Test", "CMT_ROOT", true));
+        categoryManager.addCategory(new Category("CMT_LEAF", "Leaf", "Test", "CMT_MID", true));
+        
+        // Expenditure events are delivered on each publishing thread
+        List<Thread> threads = new ArrayList<>();
+        for (String categoryId : new String[] {"CMT_LEAF", "CMT_MID", "CMT_LEAF", "CMT_ROOT"}) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    categoryManager.addSpend(categoryId, new BigDecimal("1.00"));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(0, new BigDecimal("2000.00").compareTo(categoryManager.getSubtreeSpend("CMT_LEAF")));
+        assertEquals(0, new BigDecimal("3000.00").compareTo(categoryManager.getSubtreeSpend("CMT_MID")));
+        assertEquals(0, new BigDecimal("4000.00").compareTo(categoryManager.getSubtreeSpend("CMT_ROOT")));
+    }
+}
@@ -0,0 +1,133 @@
+package expenditures;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ExpenditureManager.
+ */
+public class ExpenditureManagerTest {
+    
+    private ExpenditureManager expenditureManager;
+    
+    @TempDir
+    Path dir;
+    
+    @BeforeEach
+    void setUp() {
+        expenditureManager = new ExpenditureManager(dir.resolve("expenditures.txt"), new ExpenditureEventBus());
+    }
+    
+    private Expenditure add(String id, String amount) {
+        Expenditure expenditure = new Expenditure(id, "Test item", new BigDecimal(amount), LocalDate.of(2024, 3, 1),
+                                                  "ACC-T", "CAT-T", "Test Vendor", "PRJ-T");
+        expenditureManager.addExpenditure(expenditure);
+        return expenditure;
+    }
+    
+    @Test
+    void testSnapshotIsUnaffectedByLaterChanges() {
+        add("TEST-SNAP-1", "100.00");
+        ExpenditureSnapshot snapshot = expenditureManager.snapshot();
+        int size = snapshot.size();
+        
+        add("TEST-SNAP-2", "50.00");
+        Expenditure edited = expenditureManager.getExpenditure("TEST-SNAP-1");
+        edited.setAmount(new BigDecimal("999.00"));
+        expenditureManager.updateExpenditure(edited);
+        
+        assertEquals(size, snapshot.size());
+        assertNull(snapshot.getExpenditure("TEST-SNAP-2"));
+        assertEquals(new BigDecimal("100.00"), snapshot.getExpenditure("TEST-SNAP-1").getAmount());
+        assertTrue(expenditureManager.snapshot().getVersion() > snapshot.getVersion());
+    }
+    
+    @Test
+    void testSnapshotGroupsMatchTheSnapshot() {
+        add("TEST-SNAP-1", "100.00");
+        ExpenditureSnapshot snapshot = expenditureManager.snapshot();
+        int categorySize = snapshot.getExpendituresByCategory("CAT-T").size();
+        
+        add("TEST-SNAP-2", "50.00");
+        Expenditure moved = expenditureManager.getExpenditure("TEST-SNAP-1");
+        moved.setVendor("Other Vendor");
+        expenditureManager.updateExpenditure(moved);
+        
+        assertEquals(categorySize, snapshot.getExpendituresByCategory("CAT-T").size());
+        assertTrue(snapshot.getExpendituresByVendor("Test Vendor").stream()
+                   .anyMatch(e -> e.getExpenditureId().equals("TEST-SNAP-1")));
+        assertTrue(snapshot.getExpendituresByVendor("Other Vendor").isEmpty());
+        assertEquals(categorySize + 1, expenditureManager.getExpendituresByCategory("CAT-T").size());
+        assertEquals(1, expenditureManager.getExpendituresByVendor("Other Vendor").size());
+    }
+    
+    @Test
+    void testSharedInstancesAreReadOnly() {
+        Expenditure original = add("TEST-SNAP-1", "100.00");
+        Expenditure shared = expenditureManager.snapshot().getExpenditure("TEST-SNAP-1");
+        
+        assertThrows(UnsupportedOperationException.class, () -> shared.setAmount(new BigDecimal("1.00")));
+        assertThrows(UnsupportedOperationException.class,
+                     () -> expenditureManager.getAllExpenditures().iterator().next().setCategoryId("X"));
+        assertFalse(expenditureManager.getExpenditure("TEST-SNAP-1").isReadOnly());
+        
+        // The caller's own instance stays editable and is not the one stored
+        original.setAmount(new BigDecimal("1.00"));
+        assertEquals(new BigDecimal("100.00"), expenditureManager.snapshot().getExpenditure("TEST-SNAP-1").getAmount());
+    }
+    
+    @Test
+    void testConcurrentAddsWithReaders() throws InterruptedException {
+        int before = expenditureManager.getAllExpenditures().size();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int writer = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 25; i++) {
+                    Expenditure expenditure = new Expenditure("TEST-CONC-" + writer + "-" + i, "Test item",
+                                                              BigDecimal.ONE, LocalDate.of(2024, 3, 1),
+                                                              "ACC-T", "CAT-T", "Test Vendor", "PRJ-T");
+                    expenditureManager.addExpenditure(expenditure);
+                    expenditureManager.snapshot().size();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(before + 100, expenditureManager.getAllExpenditures().size());
+        assertEquals(100, expenditureManager.getExpendituresByCategory("CAT-T").size());
+        assertEquals(0, new BigDecimal("100").compareTo(expenditureManager.getTotalExpendituresByAccount("ACC-T")));
+    }
+    
+    @Test
+    void testHistoryMovesEditedExpenditureToFront() {
+        add("TEST-HIST-1", "10.00");
+        add("TEST-HIST-2", "20.00");
+        add("TEST-HIST-3", "30.00");
+        assertEquals("TEST-HIST-3", expenditureManager.getExpenditureHistory(0, 1).get(0).getExpenditureId());
+        
+        Expenditure edited = expenditureManager.getExpenditure("TEST-HIST-1");
+        edited.setDescription("Edited");
+        expenditureManager.updateExpenditure(edited);
+        expenditureManager.removeExpenditure("TEST-HIST-2");
+        
+        List<Expenditure> page = expenditureManager.getExpenditureHistory(0, 2);
+        assertEquals("TEST-HIST-1", page.get(0).getExpenditureId());
+        assertEquals("Edited", page.get(0).getDescription());
+        assertEquals("TEST-HIST-3", page.get(1).getExpenditureId());
+        assertEquals(expenditureManager.getAllExpenditures().size(), expenditureManager.getExpenditureHistorySize());
+        assertEquals(expenditureManager.getExpenditureHistory().subList(1, 2), expenditureManager.getExpenditureHistory(1, 1));
+    }
+}
@@ -0,0 +1,55 @@
+package expenditures;
+
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for PersistentHashMap.
+ */
+public class PersistentHashMapTest {
+    
+    @Test
+    void testMatchesHashMapUnderRandomEdits() {
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<>();
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        
+        for (int i = 0; i < 20_000; i++) {
+            String key = "EXP" + random.nextInt(3_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+        
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        List<Integer> values = new ArrayList<>();
+        map.forEach(values::add);
+        assertEquals(expected.size(), values.size());
+        assertTrue(values.containsAll(expected.values()));
+    }
+    
+    @Test
+    void testOldVersionsAreUnchanged() {
+        // "Aa" and "BB" share a hash code, so they exercise the collision node
+        PersistentHashMap<String, Integer> v1 = PersistentHashMap.<String, Integer>empty().put("Aa", 1).put("BB", 2);
+        PersistentHashMap<String, Integer> v2 = v1.put("Aa", 10).remove("BB").put("C", 3);
+        
+        assertEquals(2, v1.size());
+        assertEquals(1, v1.get("Aa"));
+        assertEquals(2, v1.get("BB"));
+        assertNull(v1.get("C"));
+        
+        assertEquals(2, v2.size());
+        assertEquals(10, v2.get("Aa"));
+        assertNull(v2.get("BB"));
+        assertEquals(0, v2.remove("Aa").remove("C").size());
+    }
+}
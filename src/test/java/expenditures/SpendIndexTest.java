@@ -0,0 +1,77 @@
+package expenditures;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for SpendIndex and DateRangeIndex.
+ */
+public class SpendIndexTest {
+    
+    private SpendIndex spendIndex;
+    
+    @BeforeEach
+    void setUp() {
+        spendIndex = new SpendIndex();
+    }
+    
+    @Test
+    void testRangeTotals() {
+        spendIndex.add(new Expenditure("EXP001", "Cement", new BigDecimal("100.00"),
+                                     LocalDate.of(2024, 1, 10), "ACC001", "CAT001", "Vendor A", "PRJ001"));
+        spendIndex.add(new Expenditure("EXP002", "Steel", new BigDecimal("250.00"),
+                                     LocalDate.of(2024, 1, 20), "ACC001", "CAT002", "Vendor B", "PRJ001"));
+        spendIndex.add(new Expenditure("EXP003", "Paint", new BigDecimal("75.50"),
+                                     LocalDate.of(2024, 2, 5), "ACC002", "CAT001", "Vendor A", "PRJ002"));
+        
+        assertEquals(new BigDecimal("425.50"), spendIndex.getTotalIndex().getTotal());
+        assertEquals(new BigDecimal("350.00"),
+                     spendIndex.getTotal(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+        assertEquals(new BigDecimal("100.00"),
+                     spendIndex.getTotal(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 10)));
+        assertEquals(new BigDecimal("175.50"),
+                     spendIndex.getCategoryTotal("CAT001", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        assertEquals(new BigDecimal("75.50"),
+                     spendIndex.getAccountTotal("ACC002", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        assertEquals(BigDecimal.ZERO,
+                     spendIndex.getProjectTotal("PRJ999", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+    }
+    
+    @Test
+    void testUpdateBacksOutPreviousValues() {
+        Expenditure expenditure = new Expenditure("EXP001", "Cement", new BigDecimal("100.00"),
+                                                LocalDate.of(2024, 1, 10), "ACC001", "CAT001", "Vendor A", "PRJ001");
+        spendIndex.add(expenditure);
+        
+        // Mutated in place, as the expenditure menu does before calling update
+        expenditure.setAmount(new BigDecimal("40.00"));
+        expenditure.setDate(LocalDate.of(2024, 3, 1));
+        expenditure.setCategoryId("CAT002");
+        spendIndex.update(expenditure);
+        
+        assertEquals(new BigDecimal("0.00"),
+                     spendIndex.getTotal(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+        assertEquals(new BigDecimal("40.00"),
+                     spendIndex.getCategoryTotal("CAT002", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1)));
+        
+        spendIndex.remove("EXP001");
+        assertEquals(new BigDecimal("0.00"), spendIndex.getTotalIndex().getTotal());
+    }
+    
+    @Test
+    void testIndexGrowsInBothDirections() {
+        DateRangeIndex index = new DateRangeIndex();
+        index.add(LocalDate.of(2024, 6, 1), new BigDecimal("10"));
+        index.add(LocalDate.of(2019, 1, 1), new BigDecimal("20"));
+        index.add(LocalDate.of(2030, 12, 31), new BigDecimal("30"));
+        
+        assertEquals(new BigDecimal("60"), index.getTotal());
+        assertEquals(new BigDecimal("30"), index.sumRange(LocalDate.of(2019, 1, 1), LocalDate.of(2024, 6, 1)));
+        assertEquals(new BigDecimal("40"), index.sumRange(LocalDate.of(2024, 6, 1), LocalDate.of(2040, 1, 1)));
+        assertEquals(new BigDecimal("20"), index.getDailyTotal(LocalDate.of(2019, 1, 1)));
+        assertEquals(BigDecimal.ZERO, index.sumRange(LocalDate.of(2025, 1, 1), LocalDate.of(2024, 1, 1)));
+    }
+}
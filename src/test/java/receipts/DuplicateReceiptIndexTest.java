@@ -0,0 +1,48 @@
+package receipts;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DuplicateReceiptIndex.
+ */
+public class DuplicateReceiptIndexTest {
+    
+    private static Receipt receipt(String id, String number, String vendor, String amount) {
+        return new Receipt(id, number, LocalDate.of(2024, 5, 10), new BigDecimal(amount), vendor, "Test", null,
+                           Receipt.ReceiptStatus.PENDING, "");
+    }
+    
+    @Test
+    void testRescanIsFlaggedOnInsert() {
+        DuplicateReceiptIndex index = new DuplicateReceiptIndex();
+        index.add(receipt("R1", "INV-7", "Acme Supply", "120.50"), "hash-a");
+        
+        assertEquals("R1", index.findDuplicate(receipt("R2", "inv-7", " ACME SUPPLY", "120.5"), null));
+        assertEquals("R1", index.findDuplicate(receipt("R3", "INV-8", "Other", "9.99"), "hash-a"));
+        assertNull(index.findDuplicate(receipt("R4", "INV-8", "Other", "9.99"), "hash-b"));
+        assertNull(index.findDuplicate(receipt("R1", "INV-7", "Acme Supply", "120.50"), "hash-a"));
+        
+        index.remove("R1");
+        assertNull(index.findDuplicate(receipt("R2", "INV-7", "Acme Supply", "120.50"), "hash-a"));
+    }
+    
+    @Test
+    void testBatchGroupsReceiptsLinkedByEitherKey() {
+        List<Receipt> receipts = List.of(
+            receipt("R1", "INV-7", "Acme Supply", "120.50"),
+            receipt("R2", "INV-7", "acme supply", "120.5"),   // same fields as R1
+            receipt("R3", "SCAN", "Unreadable", "0"),         // same file as R2
+            receipt("R4", "INV-9", "Bolt Co", "80.00"));
+        
+        List<List<String>> groups = DuplicateReceiptIndex.findDuplicateGroups(receipts,
+            Map.of("R2", "hash-a", "R3", "hash-a", "R4", "hash-b"));
+        
+        assertEquals(1, groups.size());
+        assertEquals(List.of("R1", "R2", "R3"), groups.get(0));
+    }
+}
@@ -0,0 +1,57 @@
+package receipts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReceiptBlobStore.
+ */
+public class ReceiptBlobStoreTest {
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void testIdenticalFilesShareOneBlobUntilCollected() throws Exception {
+        Path first = Files.writeString(dir.resolve("scan1.pdf"), "receipt body");
+        Path second = Files.writeString(dir.resolve("scan2.pdf"), "receipt body");
+        Path root = dir.resolve("blobs");
+        ReceiptBlobStore store = new ReceiptBlobStore(root, new ReceiptFileStore());
+        
+        String hash = store.ingest(first.toString());
+        assertEquals(hash, store.ingest(second.toString()));
+        assertEquals(2, store.getRefCount(hash));
+        assertTrue(Files.isRegularFile(root.resolve(hash.substring(0, 2)).resolve(hash)));
+        
+        Path exported = dir.resolve("exported.pdf");
+        assertEquals(12, store.export(hash, exported));
+        assertEquals("receipt body", Files.readString(exported));
+        
+        store.release(hash);
+        assertEquals(0, store.collectGarbage());
+        store.release(hash);
+        assertEquals(1, store.collectGarbage());
+        assertFalse(store.contains(hash));
+        
+        assertNull(store.ingest(dir.resolve("missing.pdf").toString()));
+    }
+    
+    @Test
+    void testBlobIsNamedFromTheStoredCopy() throws Exception {
+        Path scan = Files.writeString(dir.resolve("scan.pdf"), "first scan");
+        ReceiptBlobStore store = new ReceiptBlobStore(dir.resolve("blobs"), new ReceiptFileStore());
+        
+        String hash = store.ingest(scan.toString());
+        Path blob = dir.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash);
+        assertEquals(hash, ReceiptFileStore.hash(blob));
+        
+        Files.writeString(scan, "rescanned, longer body");
+        String rescanned = store.ingest(scan.toString());
+        assertNotEquals(hash, rescanned);
+        assertEquals("rescanned, longer body", Files.readString(
+            dir.resolve("blobs").resolve(rescanned.substring(0, 2)).resolve(rescanned)));
+    }
+}
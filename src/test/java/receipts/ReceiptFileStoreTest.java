@@ -0,0 +1,53 @@
+package receipts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReceiptFileStore.
+ */
+public class ReceiptFileStoreTest {
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void testDigestMatchesKnownValueAndIsCached() throws Exception {
+        Path file = Files.writeString(dir.resolve("scan.pdf"), "abc");
+        ReceiptFileStore store = new ReceiptFileStore();
+        
+        String digest = store.digest(file.toString());
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", digest);
+        assertEquals(1, store.getCacheSize());
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                     store.digest(Files.writeString(dir.resolve("empty.pdf"), "").toString()));
+        
+        // A changed file is hashed again even if the cache has an entry for its path
+        Files.writeString(file, "abcd");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        assertNotEquals(digest, store.digest(file.toString()));
+        
+        assertNull(store.digest(dir.resolve("missing.pdf").toString()));
+        assertNull(store.digest(""));
+    }
+    
+    @Test
+    void testDigestAllHashesFilesInParallel() throws Exception {
+        Path a = Files.writeString(dir.resolve("a.pdf"), "same");
+        Path b = Files.writeString(dir.resolve("b.pdf"), "same");
+        Path c = Files.writeString(dir.resolve("c.pdf"), "other");
+        
+        Map<String, String> digests = new ReceiptFileStore().digestAll(
+            List.of(a.toString(), b.toString(), c.toString(), dir.resolve("missing.pdf").toString()));
+        
+        assertEquals(3, digests.size());
+        assertEquals(digests.get(a.toString()), digests.get(b.toString()));
+        assertNotEquals(digests.get(a.toString()), digests.get(c.toString()));
+    }
+}
@@ -0,0 +1,36 @@
+package receipts;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReceiptIndex.
+ */
+public class ReceiptIndexTest {
+    
+    private static Receipt receipt(String id, String vendor) {
+        return new Receipt(id, "INV-" + id, LocalDate.of(2024, 5, 10), new BigDecimal("10.00"), vendor, "Test", null,
+                           Receipt.ReceiptStatus.PENDING, "");
+    }
+    
+    @Test
+    void testRemoveUsesTheVendorAndStatusIndexedUnder() {
+        ReceiptIndex index = new ReceiptIndex();
+        Receipt receipt = receipt("R1", "Acme Supply");
+        index.add(receipt);
+        index.move(receipt, Receipt.ReceiptStatus.VALIDATED);
+        assertEquals(0, index.count(Receipt.ReceiptStatus.PENDING));
+        assertEquals(1, index.count(Receipt.ReceiptStatus.VALIDATED));
+        
+        receipt.setVendor("Bolt Co");
+        index.remove(receipt);
+        assertTrue(index.withVendor("acme supply").isEmpty());
+        assertEquals(0, index.count(Receipt.ReceiptStatus.VALIDATED));
+        
+        index.add(receipt);
+        assertEquals(1, index.withVendor("BOLT CO").size());
+        assertTrue(index.withVendor("Acme Supply").isEmpty());
+    }
+}
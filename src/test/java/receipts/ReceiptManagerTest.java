@@ -0,0 +1,71 @@
+package receipts;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReceiptManager.
+ */
+public class ReceiptManagerTest {
+    private ReceiptManager receiptManager;
+    
+    @TempDir
+    Path dir;
+    
+    @BeforeEach
+    void setUp() {
+        receiptManager = new ReceiptManager(50, dir.resolve("receipts.txt"), dir.resolve("attachments"));
+    }
+    
+    private static Receipt receipt(String id, String vendor) {
+        return new Receipt(id, "N-" + id, LocalDate.of(2024, 5, 10), new BigDecimal("10.00"), vendor, "Test", null,
+                           Receipt.ReceiptStatus.PENDING, "");
+    }
+    
+    @Test
+    void testStatusAndVendorIndexesFollowTransitions() {
+        int pending = receiptManager.getReceiptCount(Receipt.ReceiptStatus.PENDING);
+        int rejected = receiptManager.getReceiptCount(Receipt.ReceiptStatus.REJECTED);
+        
+        receiptManager.addReceipt(receipt("RMT001", "Index Test Vendor"));
+        receiptManager.addReceipt(receipt("RMT002", "INDEX TEST VENDOR"));
+        assertEquals(pending + 2, receiptManager.getReceiptCount(Receipt.ReceiptStatus.PENDING));
+        assertEquals(2, receiptManager.getReceiptsByVendor("index test vendor").size());
+        assertEquals(2, receiptManager.getReceiptsByVendor("  Index Test Vendor ").size());
+        
+        receiptManager.rejectReceipt("RMT001");
+        assertEquals(pending + 1, receiptManager.getReceiptCount(Receipt.ReceiptStatus.PENDING));
+        assertEquals(rejected + 1, receiptManager.getReceiptCountsByStatus().get(Receipt.ReceiptStatus.REJECTED));
+        assertTrue(receiptManager.getReceiptsByStatus(Receipt.ReceiptStatus.REJECTED).contains(receiptManager.getReceipt("RMT001")));
+        
+        receiptManager.removeReceipt("RMT002");
+        assertEquals(1, receiptManager.getReceiptsByVendor("Index Test Vendor").size());
+        assertEquals(pending, receiptManager.getReceiptCount(Receipt.ReceiptStatus.PENDING));
+    }
+    
+    @Test
+    void testRecentlyProcessedStaysBounded() {
+        ReceiptManager bounded = new ReceiptManager(3, dir.resolve("bounded.txt"), dir.resolve("bounded"));
+        for (int i = 1; i <= 5; i++) {
+            bounded.addReceipt(receipt("RB00" + i, "Bounded Vendor"));
+        }
+        
+        bounded.validateReceipt("RB001", "EXP001");
+        bounded.rejectReceipt("RB002");
+        assertEquals(2, bounded.getRecentlyProcessed().size());
+        
+        bounded.validateReceipt("RB003", "EXP003");
+        bounded.rejectReceipt("RB004");
+        bounded.validateReceipt("RB005", "EXP005");
+        assertEquals(3, bounded.getRecentlyProcessed().size());
+        assertEquals(List.of("RB003", "RB004", "RB005"),
+                     bounded.getRecentlyProcessed().stream().map(Receipt::getReceiptId).collect(Collectors.toList()));
+    }
+}
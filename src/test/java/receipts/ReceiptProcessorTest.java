@@ -0,0 +1,92 @@
+package receipts;
+
+import expenditures.Expenditure;
+import expenditures.ExpenditureEventBus;
+import expenditures.ExpenditureManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReceiptProcessor.
+ */
+public class ReceiptProcessorTest {
+    
+    private ReceiptManager receiptManager;
+    private ExpenditureManager expenditureManager;
+    private String scan;
+    
+    @TempDir
+    Path dir;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        receiptManager = new ReceiptManager(50, dir.resolve("receipts.txt"), dir.resolve("attachments"));
+        expenditureManager = new ExpenditureManager(dir.resolve("expenditures.txt"), new ExpenditureEventBus());
+        expenditureManager.addExpenditure(new Expenditure("EXP-P1", "Lumber", new BigDecimal("25.00"),
+                                                          LocalDate.of(2024, 5, 10), "ACC-T", "CAT-T", "Acme", "PRJ-T"));
+        scan = Files.writeString(dir.resolve("scan.pdf"), "receipt").toString();
+    }
+    
+    private Receipt receipt(String id, String amount, String expenditureId) {
+        return new Receipt(id, "N-" + id, LocalDate.of(2024, 5, 11), new BigDecimal(amount), "ACME ", "Test",
+                           expenditureId, Receipt.ReceiptStatus.PENDING, scan);
+    }
+    
+    @Test
+    void testMixedBatchIsCommittedAndPendingRequeuedOnce() {
+        // The unmatched receipt scores highest, so requeueing it mid-run would have it polled again
+        receiptManager.setPriorityPolicy(ReceiptPriorityPolicy.largestAmountFirst(), 0);
+        receiptManager.addReceipt(receipt("R-OK", "25.00", "EXP-P1"));
+        receiptManager.addReceipt(receipt("R-AMOUNT", "26.00", "EXP-P1"));
+        receiptManager.addReceipt(receipt("R-GONE", "25.00", "EXP-MISSING"));
+        receiptManager.addReceipt(receipt("R-WAIT", "900.00", null));
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (ReceiptProcessor processor = new ReceiptProcessor(receiptManager, expenditureManager, executor, 1, 3)) {
+            ReceiptProcessor.ProcessingResult result = processor.processPending();
+            
+            assertEquals(1, result.getValidatedCount());
+            assertEquals(2, result.getRejectedCount());
+            assertEquals(1, result.getPendingCount());
+            assertEquals("No linked expenditure", result.getReasons().get("R-WAIT"));
+        } finally {
+            executor.shutdown();
+        }
+        
+        assertEquals(Receipt.ReceiptStatus.VALIDATED, receiptManager.getReceipt("R-OK").getStatus());
+        assertEquals(Receipt.ReceiptStatus.REJECTED, receiptManager.getReceipt("R-AMOUNT").getStatus());
+        assertEquals(Receipt.ReceiptStatus.REJECTED, receiptManager.getReceipt("R-GONE").getStatus());
+        assertEquals(1, receiptManager.getReceiptCount(Receipt.ReceiptStatus.VALIDATED));
+        assertEquals(2, receiptManager.getReceiptCount(Receipt.ReceiptStatus.REJECTED));
+        assertEquals(1, receiptManager.getReceiptCount(Receipt.ReceiptStatus.PENDING));
+        assertEquals(1, receiptManager.getProcessingQueueSize());
+        assertEquals("R-WAIT", receiptManager.pollPending(1).get(0).getReceiptId());
+    }
+    
+    @Test
+    void testCloseShutsDownOnlyAnOwnedPool() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        new ReceiptProcessor(receiptManager, expenditureManager, executor, 10, 3).close();
+        assertFalse(executor.isShutdown());
+        executor.shutdown();
+        
+        ReceiptProcessor owning = new ReceiptProcessor(receiptManager, expenditureManager);
+        owning.close();
+        receiptManager.addReceipt(receipt("R-OK", "25.00", "EXP-P1"));
+        receiptManager.addReceipt(receipt("R-WAIT", "900.00", null));
+        assertThrows(RejectedExecutionException.class, owning::processPending);
+        
+        // The rejected batch is put back rather than dropped from the queue
+        assertEquals(2, receiptManager.getProcessingQueueSize());
+        assertEquals(2, receiptManager.getReceiptCount(Receipt.ReceiptStatus.PENDING));
+    }
+}
@@ -0,0 +1,53 @@
+package receipts;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReceiptQueue.
+ */
+public class ReceiptQueueTest {
+    
+    private static Receipt receipt(String id, String amount) {
+        return new Receipt(id, "N-" + id, LocalDate.of(2024, 5, 10), new BigDecimal(amount), "Vendor", "Test", null,
+                           Receipt.ReceiptStatus.PENDING, "");
+    }
+    
+    @Test
+    void testDefaultPolicyIsFifo() {
+        ReceiptQueue queue = new ReceiptQueue();
+        queue.offer(receipt("R1", "5"));
+        queue.offer(receipt("R2", "500"));
+        queue.offer(receipt("R3", "50"));
+        assertFalse(queue.offer(receipt("R1", "5")));
+        
+        assertEquals("R1", queue.poll().getReceiptId());
+        assertEquals("R3", queue.remove("R3").getReceiptId());
+        assertEquals("R2", queue.poll().getReceiptId());
+        assertNull(queue.poll());
+    }
+    
+    @Test
+    void testPriorityReprioritizationAndAging() {
+        ReceiptQueue queue = new ReceiptQueue(ReceiptPriorityPolicy.largestAmountFirst(), 0);
+        Receipt small = receipt("R1", "10");
+        queue.offer(small);
+        queue.offer(receipt("R2", "300"));
+        queue.offer(receipt("R3", "200"));
+        assertEquals("R2", queue.peek().getReceiptId());
+        
+        small.setAmount(new BigDecimal("1000"));
+        assertTrue(queue.reprioritize(small));
+        assertEquals("R1", queue.peek().getReceiptId());
+        
+        // With enough aging the oldest receipt wins regardless of amount
+        small.setAmount(new BigDecimal("10"));
+        queue.reprioritize(small);
+        queue.setPolicy(ReceiptPriorityPolicy.largestAmountFirst(), 1000);
+        assertEquals("R1", queue.poll().getReceiptId());
+        assertEquals("R2", queue.poll().getReceiptId());
+        assertEquals("R3", queue.poll().getReceiptId());
+    }
+}
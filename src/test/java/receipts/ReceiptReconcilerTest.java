@@ -0,0 +1,85 @@
+package receipts;
+
+import expenditures.Expenditure;
+import expenditures.ExpenditureEventBus;
+import expenditures.ExpenditureManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReceiptReconciler.
+ */
+public class ReceiptReconcilerTest {
+    
+    @TempDir
+    Path dir;
+    
+    private static Receipt receipt(String id, String vendor, String amount, LocalDate date) {
+        return new Receipt(id, "N-" + id, date, new BigDecimal(amount), vendor, "Test", null,
+                           Receipt.ReceiptStatus.PENDING, "");
+    }
+    
+    private static Expenditure expenditure(String id, String vendor, String amount, LocalDate date) {
+        return new Expenditure(id, "Test", new BigDecimal(amount), date, "ACC001", "CAT001", vendor, "PRJ001");
+    }
+    
+    @Test
+    void testUnambiguousMatchesAreAutoMatched() {
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        List<Receipt> receipts = List.of(
+            receipt("R1", "Acme Supply", "120.50", day),           // one candidate, within tolerance
+            receipt("R2", "Bolt Co", "80.00", day),                // two candidates, ranked by date distance
+            receipt("R3", "Nobody", "1.00", day));                 // no candidate
+        List<Expenditure> expenditures = List.of(
+            expenditure("E1", "ACME SUPPLY", "120.5", day.plusDays(2)),
+            expenditure("E2", "Bolt Co", "80", day.minusDays(1)),
+            expenditure("E3", "Bolt Co", "80.00", day),
+            expenditure("E4", "Acme Supply", "120.50", day.plusDays(10))); // outside tolerance
+        
+        ReceiptReconciler.ReconciliationResult result = ReceiptReconciler.match(receipts, expenditures, 3);
+        
+        assertEquals("E1", result.getAutoMatched().get("R1"));
+        assertFalse(result.getAutoMatched().containsKey("R2"));
+        assertEquals("E3", result.getAmbiguous().get("R2").get(0).getExpenditureId());
+        assertEquals("E2", result.getAmbiguous().get("R2").get(1).getExpenditureId());
+        assertEquals(List.of("R3"), result.getUnmatched());
+    }
+    
+    @Test
+    void testSharedCandidateIsNotAutoMatched() {
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        List<Receipt> receipts = List.of(receipt("R1", "Acme", "50.00", day), receipt("R2", "Acme", "50.00", day));
+        List<Expenditure> expenditures = List.of(expenditure("E1", "Acme", "50.00", day));
+        
+        ReceiptReconciler.ReconciliationResult result = ReceiptReconciler.match(receipts, expenditures, 0);
+        
+        assertTrue(result.getAutoMatched().isEmpty());
+        assertEquals(2, result.getAmbiguous().size());
+    }
+    
+    @Test
+    void testReconcileLinksAndValidatesThroughTheManager() {
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        ReceiptManager receiptManager = new ReceiptManager(50, dir.resolve("receipts.txt"), dir.resolve("attachments"));
+        ExpenditureManager expenditureManager = new ExpenditureManager(dir.resolve("expenditures.txt"), new ExpenditureEventBus());
+        expenditureManager.addExpenditure(expenditure("E1", "Acme Supply", "120.50", day));
+        receiptManager.addReceipt(receipt("R1", "Acme Supply", "120.50", day));
+        receiptManager.addReceipt(receipt("R2", "Nobody", "1.00", day));
+        
+        ReceiptReconciler.ReconciliationResult result = new ReceiptReconciler(receiptManager, expenditureManager, 3).reconcile();
+        
+        assertEquals("E1", result.getAutoMatched().get("R1"));
+        Receipt matched = receiptManager.getReceipt("R1");
+        assertEquals("E1", matched.getExpenditureId());
+        assertEquals(Receipt.ReceiptStatus.VALIDATED, matched.getStatus());
+        assertEquals(List.of(matched), receiptManager.getReceiptsByStatus(Receipt.ReceiptStatus.VALIDATED));
+        assertEquals(1, receiptManager.getReceiptCount(Receipt.ReceiptStatus.PENDING));
+        assertEquals(1, receiptManager.getProcessingQueueSize());
+        assertEquals("R2", receiptManager.pollPending(10).get(0).getReceiptId());
+    }
+}
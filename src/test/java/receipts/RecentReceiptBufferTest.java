@@ -0,0 +1,78 @@
+package receipts;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RecentReceiptBuffer.
+ */
+public class RecentReceiptBufferTest {
+    
+    private static Receipt receipt(String id) {
+        return new Receipt(id, "N-" + id, LocalDate.of(2024, 5, 10), new BigDecimal("10.00"), "Vendor", "Test", null,
+                           Receipt.ReceiptStatus.PENDING, "");
+    }
+    
+    private static List<String> ids(Iterable<Receipt> receipts) {
+        List<String> result = new ArrayList<>();
+        for (Receipt receipt : receipts) {
+            result.add(receipt.getReceiptId());
+        }
+        return result;
+    }
+    
+    @Test
+    void testRejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RecentReceiptBuffer(0));
+        assertThrows(IllegalArgumentException.class, () -> new RecentReceiptBuffer(-3));
+    }
+    
+    @Test
+    void testSizeGrowsUntilFull() {
+        RecentReceiptBuffer buffer = new RecentReceiptBuffer(3);
+        assertEquals(0, buffer.size());
+        assertFalse(buffer.iterator().hasNext());
+        
+        buffer.record(receipt("R1"));
+        buffer.record(receipt("R2"));
+        assertEquals(2, buffer.size());
+        
+        buffer.record(receipt("R3"));
+        buffer.record(receipt("R4"));
+        assertEquals(3, buffer.size());
+        assertEquals(3, buffer.capacity());
+    }
+    
+    @Test
+    void testWrapAroundEvictsOldestFirst() {
+        RecentReceiptBuffer buffer = new RecentReceiptBuffer(3);
+        for (int i = 1; i <= 7; i++) {
+            buffer.record(receipt("R" + i));
+        }
+        assertEquals(List.of("R5", "R6", "R7"), ids(buffer));
+        assertEquals(List.of("R5", "R6", "R7"), ids(buffer.toList()));
+        
+        buffer.record(receipt("R8"));
+        assertEquals(List.of("R6", "R7", "R8"), ids(buffer));
+    }
+    
+    @Test
+    void testIteratorIsBoundedToItsStart() {
+        RecentReceiptBuffer buffer = new RecentReceiptBuffer(4);
+        buffer.record(receipt("R1"));
+        buffer.record(receipt("R2"));
+        
+        Iterator<Receipt> iterator = buffer.iterator();
+        buffer.record(receipt("R3"));
+        
+        // Receipts recorded after iteration starts are not reached
+        assertEquals("R1", iterator.next().getReceiptId());
+        assertEquals("R2", iterator.next().getReceiptId());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        assertEquals(List.of("R1", "R2", "R3"), ids(buffer));
+    }
+}
@@ -0,0 +1,70 @@
+package tracker;
+
+import accounts.Account;
+import accounts.AccountManager;
+import expenditures.Expenditure;
+import expenditures.ExpenditureEvent;
+import expenditures.ExpenditureEventBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for BalanceEngine.
+ */
+public class BalanceEngineTest {
+    
+    private AccountManager accountManager;
+    private BankTracker bankTracker;
+    private ExpenditureEventBus eventBus;
+    private Account account;
+    
+    @TempDir
+    Path dir;
+    
+    @BeforeEach
+    void setUp() {
+        accountManager = new AccountManager(dir.resolve("accounts.txt"));
+        bankTracker = new BankTracker();
+        eventBus = new ExpenditureEventBus();
+        eventBus.subscribe(new BalanceEngine(accountManager, bankTracker));
+        
+        account = new Account("ENG001", "Engine Test", "Checking", new BigDecimal("1000.00"), "Test Bank");
+        accountManager.addAccount(account);
+    }
+    
+    private Expenditure expenditure(String amount) {
+        return new Expenditure("EXP-ENG", "Lumber", new BigDecimal(amount), LocalDate.of(2024, 1, 15),
+                               "ENG001", "CAT001", "Supplier", "PRJ001");
+    }
+    
+    @Test
+    void testAddUpdateRemovePostToAccount() {
+        Expenditure original = expenditure("200.00");
+        eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.ADDED, null, original));
+        assertEquals(0, new BigDecimal("800.00").compareTo(account.getBalance()));
+        assertTrue(bankTracker.isTracking("ENG001"));
+        
+        Expenditure revised = expenditure("350.00");
+        eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.UPDATED, original, revised));
+        assertEquals(0, new BigDecimal("650.00").compareTo(account.getBalance()));
+        
+        eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.REMOVED, revised, null));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(account.getBalance()));
+    }
+    
+    @Test
+    void testPostingRaisesTrackerAlert() {
+        bankTracker.addAccount(account);
+        bankTracker.setAlertThreshold("ENG001", new BigDecimal("500.00"));
+        assertEquals(0, bankTracker.getUnreadAlertCount());
+        
+        eventBus.publish(new ExpenditureEvent(ExpenditureEvent.Type.ADDED, null, expenditure("600.00")));
+        assertEquals(1, bankTracker.getUnreadAlertCount());
+        assertEquals("ENG001", bankTracker.getLowestBalanceAccount().getAccountId());
+    }
+}
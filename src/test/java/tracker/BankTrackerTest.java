@@ -0,0 +1,170 @@
+package tracker;
+
+import accounts.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for BankTracker.
+ */
+public class BankTrackerTest {
+    
+    private BankTracker bankTracker;
+    private Account checking;
+    private Account savings;
+    private Account payroll;
+    
+    @BeforeEach
+    void setUp() {
+        bankTracker = new BankTracker();
+        checking = new Account("ACC001", "Checking", "Checking", new BigDecimal("1000.00"), "Test Bank");
+        savings = new Account("ACC002", "Savings", "Savings", new BigDecimal("5000.00"), "Test Bank");
+        payroll = new Account("ACC003", "Payroll", "Checking", new BigDecimal("2500.00"), "Test Bank");
+        
+        bankTracker.addAccount(checking);
+        bankTracker.addAccount(savings);
+        bankTracker.addAccount(payroll);
+    }
+    
+    @Test
+    void testLowestBalanceAccount() {
+        assertEquals("ACC001", bankTracker.getLowestBalanceAccount().getAccountId());
+    }
+    
+    @Test
+    void testHeapFollowsInPlaceBalanceChanges() {
+        savings.debit(new BigDecimal("4900.00"));
+        assertEquals("ACC002", bankTracker.getLowestBalanceAccount().getAccountId());
+        
+        savings.credit(new BigDecimal("9000.00"));
+        assertEquals("ACC001", bankTracker.getLowestBalanceAccount().getAccountId());
+        
+        checking.setBalance(new BigDecimal("3000.00"));
+        assertEquals("ACC003", bankTracker.getLowestBalanceAccount().getAccountId());
+    }
+    
+    @Test
+    void testRemoveAccountStopsTracking() {
+        bankTracker.removeAccount(checking);
+        assertFalse(bankTracker.isTracking("ACC001"));
+        assertEquals("ACC003", bankTracker.getLowestBalanceAccount().getAccountId());
+        
+        // Changes to an untracked account must not put it back in the heap
+        checking.debit(new BigDecimal("999.00"));
+        assertEquals("ACC003", bankTracker.getLowestBalanceAccount().getAccountId());
+    }
+    
+    @Test
+    void testAlertCreatedWhenBalanceDropsBelowThreshold() {
+        bankTracker.setAlertThreshold("ACC003", new BigDecimal("2000.00"));
+        assertTrue(bankTracker.getUnreadAlerts().isEmpty());
+        
+        payroll.debit(new BigDecimal("600.00"));
+        assertEquals(1, bankTracker.getUnreadAlerts().size());
+        assertEquals("ACC003", bankTracker.getAccountsBelowThreshold().get(0).getAccountId());
+    }
+    
+    @Test
+    void testLowestBalanceAccountsIsOrderedAndNonDestructive() {
+        for (int i = 0; i < 50; i++) {
+            bankTracker.addAccount(new Account(String.format("SUB%03d", i), "Sub " + i, "Checking",
+                                               new BigDecimal((i * 37) % 50 * 100 + 3000), "Test Bank"));
+        }
+        
+        List<Account> lowest = bankTracker.getLowestBalanceAccounts(5);
+        assertEquals(5, lowest.size());
+        assertEquals("ACC001", lowest.get(0).getAccountId());
+        assertEquals("ACC003", lowest.get(1).getAccountId());
+        for (int i = 1; i < lowest.size(); i++) {
+            assertTrue(lowest.get(i - 1).getBalance().compareTo(lowest.get(i).getBalance()) <= 0);
+        }
+        
+        // Repeated calls see the same heap
+        assertEquals(lowest, bankTracker.getLowestBalanceAccounts(5));
+        assertEquals(53, bankTracker.getLowestBalanceAccounts(100).size());
+        assertEquals("ACC001", bankTracker.getLowestBalanceAccount().getAccountId());
+    }
+    
+    @Test
+    void testThresholdBreachAndNearBreach() {
+        bankTracker.setAlertThreshold("ACC001", new BigDecimal("1200.00"));
+        bankTracker.setAlertThreshold("ACC002", new BigDecimal("4900.00"));
+        bankTracker.setAlertThreshold("ACC003", new BigDecimal("1000.00"));
+        
+        assertEquals(List.of(checking), bankTracker.getAccountsBelowThreshold());
+        assertEquals(List.of(savings), bankTracker.getAccountsNearThreshold(new BigDecimal("500.00")));
+        
+        savings.debit(new BigDecimal("200.00"));
+        checking.credit(new BigDecimal("250.00"));
+        assertEquals(List.of(savings), bankTracker.getAccountsBelowThreshold());
+        assertEquals(List.of(checking), bankTracker.getAccountsNearThreshold(new BigDecimal("100.00")));
+    }
+    
+    @Test
+    void testNearThresholdIncludesHeadroomEqualToMargin() {
+        bankTracker.setAlertThreshold("ACC001", new BigDecimal("800.00"));   // headroom 200.00
+        bankTracker.setAlertThreshold("ACC002", new BigDecimal("4800.00"));  // headroom 200.00
+        bankTracker.setAlertThreshold("ACC003", new BigDecimal("2500.00"));  // headroom 0
+        
+        assertEquals(List.of(payroll, checking, savings), bankTracker.getAccountsNearThreshold(new BigDecimal("200.00")));
+        assertEquals(List.of(payroll, checking, savings), bankTracker.getAccountsNearThreshold(new BigDecimal("200")));
+        assertEquals(List.of(payroll), bankTracker.getAccountsNearThreshold(new BigDecimal("199.99")));
+    }
+    
+    @Test
+    void testMarkAlertAsReadAndClear() {
+        bankTracker.setAlertThreshold("ACC001", new BigDecimal("1500.00"));
+        BalanceAlert alert = bankTracker.getUnreadAlerts().get(0);
+        
+        // Further postings do not duplicate the unread alert
+        checking.debit(new BigDecimal("100.00"));
+        assertEquals(1, bankTracker.getUnreadAlertCount());
+        
+        bankTracker.markAlertAsRead(alert.getAlertId());
+        assertTrue(bankTracker.getAlert(alert.getAlertId()).isRead());
+        assertEquals(0, bankTracker.getUnreadAlertCount());
+        
+        // Once read, the next breach raises a new alert
+        checking.debit(new BigDecimal("100.00"));
+        assertEquals(1, bankTracker.getUnreadAlertCount());
+        assertEquals(2, bankTracker.getAlerts().size());
+        
+        bankTracker.clearReadAlerts();
+        assertEquals(1, bankTracker.getAlerts().size());
+        assertNull(bankTracker.getAlert(alert.getAlertId()));
+    }
+    
+    @Test
+    void testThresholdChangesRaceBalancePostings() throws InterruptedException {
+        // Postings re-index on their own thread while another thread moves the threshold
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    checking.debit(new BigDecimal("1.00"));
+                    checking.credit(new BigDecimal("1.00"));
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            for (int i = 0; i < 500; i++) {
+                bankTracker.setAlertThreshold("ACC001", new BigDecimal(i % 2 == 0 ? "500.00" : "1200.00"));
+            }
+            bankTracker.setAlertThreshold("ACC001", new BigDecimal("900.00"));
+        }));
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(new BigDecimal("900.00"), bankTracker.getAlertThreshold("ACC001"));
+        assertTrue(bankTracker.getAccountsBelowThreshold().isEmpty());
+        assertEquals(List.of(checking), bankTracker.getAccountsNearThreshold(new BigDecimal("150.00")));
+    }
+}